@@ -0,0 +1,96 @@
+package holdem;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+// Time per hand of BatchEvaluator on seeded random deals, with the cards as ints and as bytes, against evaluating the
+// same hands one at a time with a BoardContext per deal, as App does
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BatchEvaluatorBenchmark {
+    private static final int NUMBER_OF_DEALS = 1024;
+    private static final int HANDS_PER_DEAL = 6;
+    private static final int NUMBER_OF_HANDS = NUMBER_OF_DEALS * HANDS_PER_DEAL;
+
+    private final BatchEvaluator batchEvaluator = new BatchEvaluator();
+    private final HandStrengthEvaluator evaluator = EvaluatorType.LOOKUP_TABLE.newEvaluator();
+    private final int[] boardCards = new int[DealParser.NUMBER_OF_BOARD_CARDS * NUMBER_OF_DEALS];
+    private final int[] holeCards = new int[2 * NUMBER_OF_HANDS];
+    private final byte[] boardCardBytes = new byte[boardCards.length];
+    private final byte[] holeCardBytes = new byte[holeCards.length];
+    private final int[] strengths = new int[NUMBER_OF_HANDS];
+    private final int[] rankPositions = new int[NUMBER_OF_HANDS];
+
+    @Setup
+    public void setup() {
+        Random random = new Random(0);
+        for (int deal = 0; deal < NUMBER_OF_DEALS; deal++) {
+            String[] cards = BenchmarkDeals.randomDeal(random, HANDS_PER_DEAL).replace(" ", "").split("(?<=\\G..)");
+            for (int i = 0; i < cards.length; i++) {
+                int card = Card.valueOf(cards[i]).getIndex();
+                if (i < DealParser.NUMBER_OF_BOARD_CARDS) {
+                    boardCards[DealParser.NUMBER_OF_BOARD_CARDS * deal + i] = card;
+                } else {
+                    holeCards[2 * HANDS_PER_DEAL * deal + i - DealParser.NUMBER_OF_BOARD_CARDS] = card;
+                }
+            }
+        }
+        for (int i = 0; i < boardCards.length; i++) {
+            boardCardBytes[i] = (byte) boardCards[i];
+        }
+        for (int i = 0; i < holeCards.length; i++) {
+            holeCardBytes[i] = (byte) holeCards[i];
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUMBER_OF_HANDS)
+    public int[] batch() {
+        batchEvaluator.evaluate(boardCards, holeCards, NUMBER_OF_DEALS, HANDS_PER_DEAL, strengths, null);
+        return strengths;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUMBER_OF_HANDS)
+    public int[] batchBytes() {
+        batchEvaluator.evaluate(boardCardBytes, holeCardBytes, NUMBER_OF_DEALS, HANDS_PER_DEAL, strengths, null);
+        return strengths;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUMBER_OF_HANDS)
+    public int[] batchWithRanks() {
+        batchEvaluator.evaluate(boardCards, holeCards, NUMBER_OF_DEALS, HANDS_PER_DEAL, strengths, rankPositions);
+        return rankPositions;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUMBER_OF_HANDS)
+    public void oneAtATime(Blackhole blackhole) {
+        int[] dealBoard = new int[DealParser.NUMBER_OF_BOARD_CARDS];
+        for (int deal = 0; deal < NUMBER_OF_DEALS; deal++) {
+            System.arraycopy(boardCards, DealParser.NUMBER_OF_BOARD_CARDS * deal, dealBoard, 0, dealBoard.length);
+            BoardContext board = new BoardContext(dealBoard);
+            for (int hand = deal * HANDS_PER_DEAL; hand < (deal + 1) * HANDS_PER_DEAL; hand++) {
+                blackhole.consume(evaluator.evaluate(board, holeCards[2 * hand], holeCards[2 * hand + 1]));
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package holdem;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Seeded random deals and hands used as benchmark inputs, so that runs are comparable between releases.
+final class BenchmarkDeals {
+    static final int MIN_HANDS = 2;
+    static final int MAX_HANDS = 9;
+    private static final int CARDS_IN_HAND = 7;
+
+    private BenchmarkDeals() {
+    }
+
+    static List<String> randomDeals(int numberOfDeals, long seed) {
+        Random random = new Random(seed);
+        List<String> deals = new ArrayList<>();
+        for (int i = 0; i < numberOfDeals; i++) {
+            deals.add(randomDeal(random, MIN_HANDS + random.nextInt(MAX_HANDS - MIN_HANDS + 1)));
+        }
+        return deals;
+    }
+
+    static String randomDeal(Random random, int numberOfHands) {
+        int[] cards = randomCards(random, DealParser.NUMBER_OF_BOARD_CARDS + 2 * numberOfHands);
+        StringBuilder deal = new StringBuilder();
+        for (int i = 0; i < cards.length; i++) {
+            if (i >= DealParser.NUMBER_OF_BOARD_CARDS && (i - DealParser.NUMBER_OF_BOARD_CARDS) % 2 == 0) {
+                deal.append(' ');
+            }
+            deal.append(Card.valueOf(cards[i]));
+        }
+        return deal.toString();
+    }
+
+    // 7 card hands of the given ranking, found by evaluating random hands
+    static int[][] randomHands(HandRanking handRanking, int numberOfHands, long seed) {
+        Random random = new Random(seed);
+        HandStrengthEvaluator evaluator = new BitmaskEvaluator();
+        int[][] hands = new int[numberOfHands][];
+        int found = 0;
+        while (found < numberOfHands) {
+            int[] cards = randomCards(random, CARDS_IN_HAND);
+            if (HandStrength.getHandRanking(evaluator.evaluate(cards)) == handRanking) {
+                hands[found++] = cards;
+            }
+        }
+        return hands;
+    }
+
+    // distinct cards, by a partial Fisher-Yates shuffle of the deck
+    private static int[] randomCards(Random random, int numberOfCards) {
+        int[] deck = new int[Card.NUMBER_OF_CARDS];
+        for (int i = 0; i < deck.length; i++) {
+            deck[i] = i;
+        }
+        for (int i = 0; i < numberOfCards; i++) {
+            int chosen = i + random.nextInt(deck.length - i);
+            int card = deck[chosen];
+            deck[chosen] = deck[i];
+            deck[i] = card;
+        }
+        int[] cards = new int[numberOfCards];
+        System.arraycopy(deck, 0, cards, 0, numberOfCards);
+        return cards;
+    }
+}
@@ -0,0 +1,62 @@
+package holdem;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CardBenchmark {
+    private String[] cardStrings;
+    private String deckString; // all cards in one string, parsed at offsets
+
+    @Setup
+    public void setup() {
+        cardStrings = new String[Card.NUMBER_OF_CARDS];
+        StringBuilder deck = new StringBuilder();
+        for (int i = 0; i < cardStrings.length; i++) {
+            cardStrings[i] = Card.valueOf(i).toString();
+            deck.append(cardStrings[i]);
+        }
+        deckString = deck.toString();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(Card.NUMBER_OF_CARDS)
+    public void valueOfString(Blackhole blackhole) {
+        for (String cardString : cardStrings) {
+            blackhole.consume(Card.valueOf(cardString));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(Card.NUMBER_OF_CARDS)
+    public void valueOfOffset(Blackhole blackhole) {
+        for (int i = 0; i < Card.NUMBER_OF_CARDS; i++) {
+            blackhole.consume(Card.valueOf(deckString, 2 * i));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(Card.NUMBER_OF_CARDS)
+    public void indexOfChars(Blackhole blackhole) {
+        for (int i = 0; i < Card.NUMBER_OF_CARDS; i++) {
+            blackhole.consume(Card.indexOf(deckString.charAt(2 * i), deckString.charAt(2 * i + 1)));
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package holdem;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// A whole input processed from memory, read as lines of text (like stdin) or as bytes (like --nio)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class EndToEndBenchmark {
+    private static final String SYNTHETIC_CORPUS = "synthetic";
+    private static final int SYNTHETIC_DEALS = 25_000;
+
+    // a path relative to the working directory, or synthetic for seeded random deals
+    @Param({"inputs/input25k", SYNTHETIC_CORPUS})
+    private String corpus;
+
+    @Param({"legacy", "table", "bitmask"})
+    private String evaluatorType;
+
+    @Param({"text", "bytes"})
+    private String reader;
+
+    private App app;
+    private byte[] input;
+
+    @Setup
+    public void setup() throws IOException {
+        app = new App(EvaluatorType.fromString(evaluatorType).newEvaluator(), GameType.HOLDEM);
+        if (SYNTHETIC_CORPUS.equals(corpus)) {
+            String deals = String.join("\n", BenchmarkDeals.randomDeals(SYNTHETIC_DEALS, SYNTHETIC_DEALS));
+            input = deals.getBytes(StandardCharsets.US_ASCII);
+        } else {
+            input = Files.readAllBytes(Paths.get(corpus));
+        }
+    }
+
+    @Benchmark
+    public byte[] process() {
+        return app.collectOutput(() -> {
+            try {
+                if ("bytes".equals(reader)) {
+                    DealLineReader.read(Channels.newChannel(new ByteArrayInputStream(input)), app::processDeal);
+                } else {
+                    processLines();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private void processLines() throws IOException {
+        BufferedReader lines = new BufferedReader(new InputStreamReader(new ByteArrayInputStream(input)));
+        String line = lines.readLine();
+        while (line != null) {
+            app.processDeal(line);
+            line = lines.readLine();
+        }
+    }
+}
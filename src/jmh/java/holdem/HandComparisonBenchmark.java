@@ -0,0 +1,61 @@
+package holdem;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+// Hand.compareTo on evaluated hands of equal strength (ordered by their cards) and of different strength
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HandComparisonBenchmark {
+    private static final int NUMBER_OF_PAIRS = 256;
+
+    @Param({"true", "false"})
+    private boolean ties;
+
+    private Hand[] firstHands;
+    private Hand[] secondHands;
+
+    @Setup
+    public void setup() {
+        App app = new App(EvaluatorType.BITMASK.newEvaluator(), GameType.HOLDEM);
+        Random random = new Random(NUMBER_OF_PAIRS);
+        firstHands = new Hand[NUMBER_OF_PAIRS];
+        secondHands = new Hand[NUMBER_OF_PAIRS];
+        int found = 0;
+        while (found < NUMBER_OF_PAIRS) {
+            List<Hand> deal = app.parseDeal(BenchmarkDeals.randomDeal(random, 2));
+            deal.forEach(Hand::evaluateHand);
+            if ((deal.get(0).getStrength() == deal.get(1).getStrength()) == ties) {
+                firstHands[found] = deal.get(0);
+                secondHands[found++] = deal.get(1);
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUMBER_OF_PAIRS)
+    public void compareTo(Blackhole blackhole) {
+        for (int i = 0; i < NUMBER_OF_PAIRS; i++) {
+            blackhole.consume(firstHands[i].compareTo(secondHands[i]));
+        }
+    }
+}
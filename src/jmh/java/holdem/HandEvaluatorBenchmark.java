@@ -0,0 +1,52 @@
+package holdem;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+// 7 card hand evaluation per hand ranking category and evaluation engine
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HandEvaluatorBenchmark {
+    private static final int NUMBER_OF_HANDS = 256;
+
+    @Param({"HIGH_CARD", "PAIR", "TWO_PAIRS", "THREE_OF_A_KIND", "STRAIGHT", "FLUSH", "FULL_HOUSE", "FOUR_OF_A_KIND",
+            "STRAIGHT_FLUSH"})
+    private HandRanking handRanking;
+
+    @Param({"legacy", "table", "bitmask"})
+    private String evaluatorType;
+
+    private HandStrengthEvaluator evaluator;
+    private int[][] hands;
+
+    @Setup
+    public void setup() {
+        evaluator = EvaluatorType.fromString(evaluatorType).newEvaluator();
+        hands = BenchmarkDeals.randomHands(handRanking, NUMBER_OF_HANDS, handRanking.ordinal());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUMBER_OF_HANDS)
+    public void evaluate(Blackhole blackhole) {
+        for (int[] hand : hands) {
+            blackhole.consume(evaluator.evaluate(hand));
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package holdem;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// App.processDeal per deal, from strings and from bytes, with the output formatted into a buffer instead of written
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ProcessDealBenchmark {
+    private static final int NUMBER_OF_DEALS = 1024;
+
+    @Param({"legacy", "table", "bitmask"})
+    private String evaluatorType;
+
+    @Param({"text", "binary", "ndjson"})
+    private String outputFormat;
+
+    private App app;
+    private List<String> deals;
+    private ByteBuffer dealBytes;
+    private int[] lineEnds;
+
+    @Setup
+    public void setup() {
+        app = new App(EvaluatorType.fromString(evaluatorType).newEvaluator(), GameType.HOLDEM,
+                OutputFormat.fromString(outputFormat));
+        deals = BenchmarkDeals.randomDeals(NUMBER_OF_DEALS, NUMBER_OF_DEALS);
+        StringBuilder allDeals = new StringBuilder();
+        lineEnds = new int[NUMBER_OF_DEALS];
+        for (int i = 0; i < NUMBER_OF_DEALS; i++) {
+            allDeals.append(deals.get(i));
+            lineEnds[i] = allDeals.length();
+        }
+        dealBytes = ByteBuffer.wrap(allDeals.toString().getBytes(StandardCharsets.US_ASCII));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUMBER_OF_DEALS)
+    public byte[] processDealString() {
+        return app.collectOutput(() -> deals.forEach(app::processDeal));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUMBER_OF_DEALS)
+    public byte[] processDealBytes() {
+        return app.collectOutput(() -> {
+            int lineStart = 0;
+            for (int lineEnd : lineEnds) {
+                app.processDeal(dealBytes, lineStart, lineEnd);
+                lineStart = lineEnd;
+            }
+        });
+    }
+}
@@ -1,103 +1,883 @@
 package holdem;
 
 import java.io.BufferedReader;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
+import java.util.Collection;
 import java.util.List;
+import java.util.Locale;
 import java.util.Scanner;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 public final class App {
 
-    private static final int NUMBER_OF_CHARS_IN_HOLDEM_HAND = 4;
-    private static final String EQUAL_VALUE_HAND_SEPARATOR = "=";
+    private static final int NUMBER_OF_CHARS_IN_BOARD = 10;
     private static final String DIFFERENT_VALUE_HAND_SEPARATOR = " ";
     private static final String TIME_EXECUTION_PARAMETER = "--timed";
+    private static final String EVALUATOR_PARAMETER = "--evaluator";
+    private static final String INPUT_FILE_PARAMETER = "--input";
+    private static final String BINARY_INPUT_FILE_PARAMETER = "--binary-input";
+    private static final String NIO_PARAMETER = "--nio";
+    private static final String THREADS_PARAMETER = "--threads";
+    private static final String OMAHA_PARAMETER = "--omaha";
+    private static final String EQUITY_PARAMETER = "--equity";
+    private static final String SAMPLES_PARAMETER = "--samples";
+    private static final String TIME_LIMIT_PARAMETER = "--time-limit";
+    private static final String SEED_PARAMETER = "--seed";
+    private static final long DEFAULT_EQUITY_SAMPLES = 1_000_000;
+    private static final String OUTPUT_FORMAT_PARAMETER = "--format";
+    private static final int OUTPUT_BATCH_SIZE = 1 << 20;
+    private static final String CACHE_SIZE_PARAMETER = "--cache-size";
+    private static final String METRICS_PARAMETER = "--metrics";
+    private static final String METRICS_INTERVAL_PARAMETER = "--metrics-interval";
+    private static final long DEFAULT_METRICS_INTERVAL_SECONDS = 10;
+    private static final String SERVE_PARAMETER = "--serve";
+    private static final String ANALYZE_PARAMETER = "--analyze";
+    private static final String ENUMERATE_PARAMETER = "--enumerate";
+    private static final String WINNERS_PARAMETER = "--winners";
+    private static final String TOP_PARAMETER = "--top";
+    private static final String PERCENTILES_PARAMETER = "--percentiles";
+    private static final String BOARD_CACHE_SIZE_PARAMETER = "--board-cache-size";
+    private static final long DEFAULT_BOARD_CACHE_SIZE = 4096;
+    private static final String SETTLE_PARAMETER = "--settle";
+    private static final String RANGES_PARAMETER = "--ranges";
+    private static final String PREFLOP_MATRIX_PARAMETER = "--preflop-matrix";
+    private static final String EQUITY_CACHE_PARAMETER = "--equity-cache";
+    private static final long DEFAULT_MATRIX_SAMPLES = 10_000;
+    private static final String RANGE_SEPARATOR = "/";
 
-    private App() {
+    private final HandStrengthEvaluator evaluator;
+    private final GameType gameType;
+    private DealParser dealParser;
+    private final DealFormatter formatter;
+    private final OutputBuffer output = new OutputBuffer(OUTPUT_BATCH_SIZE);
+    private final SortedDeal sortedDeal = new SortedDeal();
+    private final Card[] dealBoardCards = new Card[DealParser.NUMBER_OF_BOARD_CARDS];
+    private final int[] dealBoardCardIndices = new int[DealParser.NUMBER_OF_BOARD_CARDS];
+    private final List<Hand> dealHands = new ArrayList<>();
+    private Hand[] handPool = new Hand[16];
+    private BoardContext dealBoard;
+    private WritableByteChannel outputChannel; // when not set, output is collected by collectOutput
+    private long dealIndex;
+    private DealCache dealCache;
+    private DealMetrics metrics; // null unless metrics are enabled
+    private DealStatistics statistics; // null unless deals are analyzed instead of output
+    private int topHands; // number of strongest hands output per deal (with their ties), 0 for all
+    private BoardPercentiles boardPercentiles; // null unless the percentiles of hands are output instead
+    private final int[] percentileBoardCards = new int[DealParser.NUMBER_OF_BOARD_CARDS];
+    private PotSettlement potSettlement; // null unless the pots of deals are settled instead
+
+    App(HandStrengthEvaluator evaluator, GameType gameType) {
+        this(evaluator, gameType, OutputFormat.TEXT);
+    }
+
+    App(HandStrengthEvaluator evaluator, GameType gameType, OutputFormat outputFormat) {
+        this.evaluator = evaluator;
+        this.gameType = gameType;
+        this.dealParser = new DealParser(gameType);
+        this.formatter = outputFormat.newFormatter();
+    }
+
+    void setDealCache(DealCache dealCache) {
+        this.dealCache = dealCache;
+    }
+
+    void setMetrics(DealMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    void setStatistics(DealStatistics statistics) {
+        this.statistics = statistics;
+    }
+
+    void setTopHands(int topHands) {
+        this.topHands = topHands;
+    }
+
+    void setBoardPercentiles(BoardPercentiles boardPercentiles) {
+        this.boardPercentiles = boardPercentiles;
+    }
+
+    // the players of settled deals come with their contributions, so they are only read from bytes
+    void setPotSettlement(PotSettlement potSettlement) {
+        this.potSettlement = potSettlement;
+        this.dealParser = new DealParser(gameType, true);
+    }
+
+    void setOutputChannel(WritableByteChannel outputChannel) {
+        this.outputChannel = outputChannel;
     }
 
     public void processDeal(String dealString) {
+        long time = startStage();
         try {
             List<Hand> deal = parseDeal(dealString);
-            evaluateAndSortDealHands(deal);
-            printFormattedSortedHands(deal);
+            time = endStage(DealMetrics.Stage.PARSE, time);
+            evaluateDealHands(deal);
+            time = endStage(DealMetrics.Stage.EVALUATE, time);
+            outputDeal(deal, time);
         } catch (RuntimeException e) {
-            String message = e.getMessage();
-            System.out.println(message + ", skipping line: " + dealString);
+            outputError(e.getMessage(), dealString);
+        }
+        endDeal();
+    }
+
+    public void processDeal(ByteBuffer input, int start, int end) {
+        long time = startStage();
+        int parseResult = dealParser.parse(input, start, end);
+        if (parseResult == DealParser.OK && potSettlement != null && dealParser.getNumberOfHands() == 0) {
+            outputError("Invalid contribution encountered: all players folded", DealParser.decode(input, start, end));
+            endDeal();
+            return;
+        }
+        if (parseResult == DealParser.OK) {
+            processParsedDeal(getHands(dealParser.getBoardCards(), dealParser.getHandCards(),
+                    dealParser.getNumberOfHands()), time);
+            return;
+        }
+        outputError(dealParser.getErrorMessage(input, parseResult), DealParser.decode(input, start, end));
+        endDeal();
+    }
+
+    // deals of the binary deal format don't need parsing, while invalid lines are processed as text
+    void processBinaryBlock(BinaryDealReader.Block block) {
+        dealIndex = block.getFirstDealIndex();
+        long time = startStage();
+        while (block.next()) {
+            if (block.isInvalidLine()) {
+                processDeal(block.getInvalidLine());
+            } else {
+                processParsedDeal(getHands(block.getBoardCards(), block.getHandCards(), block.getNumberOfHands()),
+                        time);
+            }
+            time = startStage();
         }
     }
 
+    private void processParsedDeal(List<Hand> deal, long parseStart) {
+        long time = endStage(DealMetrics.Stage.PARSE, parseStart);
+        evaluateDealHands(deal);
+        time = endStage(DealMetrics.Stage.EVALUATE, time);
+        outputDeal(deal, time);
+        endDeal();
+    }
+
+    // with statistics the deal is only counted, without sorting or output
+    private void outputDeal(List<Hand> deal, long sortStart) {
+        if (statistics != null) {
+            statistics.addDeal(deal);
+            return;
+        }
+        if (boardPercentiles != null) {
+            outputPercentiles(deal);
+            endStage(DealMetrics.Stage.PRINT, sortStart);
+            return;
+        }
+        if (potSettlement != null) {
+            sortedDeal.sort(deal);
+            outputSettlement();
+            endStage(DealMetrics.Stage.PRINT, sortStart);
+            return;
+        }
+        if (topHands > 0) {
+            sortedDeal.sortStrongest(deal, topHands);
+        } else {
+            sortedDeal.sort(deal);
+        }
+        long time = endStage(DealMetrics.Stage.SORT, sortStart);
+        formatter.formatDeal(output, dealIndex, sortedDeal);
+        endStage(DealMetrics.Stage.PRINT, time);
+    }
+
+    // the hands in input order, each with the percentage of the 1080 other holdings possible on the board that it
+    // beats (ties count half) and its rank among all of them (1 for the nuts), e.g. Ad4s:percentile=92.31%,rank=84
+    private void outputPercentiles(List<Hand> deal) {
+        if (!deal.isEmpty()) {
+            Card[] boardCards = deal.get(0).getBoardCards();
+            for (int i = 0; i < percentileBoardCards.length; i++) {
+                percentileBoardCards[i] = boardCards[i].getIndex();
+            }
+            int[] holdingStrengths = boardPercentiles.getHoldingStrengths(percentileBoardCards);
+            for (int i = 0; i < deal.size(); i++) {
+                Hand hand = deal.get(i);
+                int weaker = BoardPercentiles.countWeaker(holdingStrengths, hand.getStrength());
+                int stronger = BoardPercentiles.countStronger(holdingStrengths, hand.getStrength());
+                int tied = BoardPercentiles.NUMBER_OF_HOLDINGS - weaker - stronger - 1; // without the hand itself
+                if (i > 0) {
+                    output.put((byte) ' ');
+                }
+                for (Card card : hand.getHandCards()) {
+                    output.putAscii(card.toString());
+                }
+                output.putAscii(":percentile=");
+                putHundredths(Math.round(10000.0 * (weaker + tied / 2.0) / (BoardPercentiles.NUMBER_OF_HOLDINGS - 1)));
+                output.putAscii("%,rank=");
+                output.putDecimal(stronger + 1);
+            }
+        }
+        output.putLineSeparator();
+    }
+
+    // the chips won by each player in line order, e.g. 0 375 125 for a main pot split between the last two players
+    private void outputSettlement() {
+        potSettlement.settle(dealParser.getPlayerContributions(), dealParser.getPlayerHands(),
+                dealParser.getNumberOfPlayers(), sortedDeal);
+        long[] payouts = potSettlement.getPayouts();
+        for (int player = 0; player < potSettlement.getNumberOfPlayers(); player++) {
+            if (player > 0) {
+                output.put((byte) ' ');
+            }
+            output.putDecimal(payouts[player]);
+        }
+        output.putLineSeparator();
+    }
+
+    private void putHundredths(long hundredths) {
+        output.putDecimal(hundredths / 100);
+        output.put((byte) '.');
+        output.put((byte) ('0' + hundredths / 10 % 10));
+        output.put((byte) ('0' + hundredths % 10));
+    }
+
+    private void outputError(String message, String line) {
+        if (statistics != null) {
+            statistics.countSkippedLine(message);
+        } else {
+            formatter.formatError(output, dealIndex, message, line);
+        }
+        countError(message);
+    }
+
+    // stage timing only reads the clock when metrics are enabled
+    private long startStage() {
+        return metrics == null ? 0 : System.nanoTime();
+    }
+
+    // records the time since the start of the stage and returns the start of the next one
+    private long endStage(DealMetrics.Stage stage, long stageStart) {
+        if (metrics == null) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        metrics.record(stage, now - stageStart);
+        return now;
+    }
+
+    private void countError(String message) {
+        if (metrics != null) {
+            metrics.countError(message);
+        }
+    }
+
+    // output is written once a batch of many deals has been formatted
+    private void endDeal() {
+        dealIndex++;
+        if (metrics != null) {
+            metrics.countDeal();
+        }
+        if (outputChannel != null && output.size() >= OUTPUT_BATCH_SIZE) {
+            flushOutput();
+        }
+    }
+
+    private void flushOutput() {
+        long time = startStage();
+        try {
+            output.writeTo(outputChannel);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        endStage(DealMetrics.Stage.WRITE, time);
+    }
+
+    // the hole cards are given for each hand in turn, GameType.getNumberOfHoleCards() per hand. Hold'em deals reuse
+    // the board, the hands and the list of the previous deal, so they allocate nothing once there have been as many
+    // hands, and the hands are only valid until the next deal.
+    private List<Hand> getHands(int[] boardCardIndices, int[] handCards, int numberOfHands) {
+        if (gameType == GameType.OMAHA) {
+            return getOmahaHands(boardCardIndices, handCards, numberOfHands);
+        }
+        for (int i = 0; i < dealBoardCards.length; i++) {
+            dealBoardCards[i] = Card.valueOf(boardCardIndices[i]);
+        }
+        Arrays.sort(dealBoardCards); // sort board cards once for all hands
+        for (int i = 0; i < dealBoardCards.length; i++) {
+            dealBoardCardIndices[i] = dealBoardCards[i].getIndex();
+        }
+        if (dealBoard == null) {
+            dealBoard = new BoardContext(dealBoardCardIndices);
+        } else {
+            dealBoard.reset(dealBoardCardIndices);
+        }
+        if (numberOfHands > handPool.length) {
+            handPool = Arrays.copyOf(handPool, Math.max(numberOfHands, 2 * handPool.length));
+        }
+        dealHands.clear();
+        for (int i = 0; i < numberOfHands; i++) {
+            Card card1 = Card.valueOf(handCards[2 * i]);
+            Card card2 = Card.valueOf(handCards[2 * i + 1]);
+            if (handPool[i] == null) {
+                handPool[i] = new Hand(i, card1, card2, dealBoardCards, dealBoard, evaluator);
+            } else {
+                handPool[i].reset(i, card1, card2, dealBoardCards, dealBoard, evaluator);
+            }
+            dealHands.add(handPool[i]);
+        }
+        return dealHands;
+    }
+
+    private List<Hand> getOmahaHands(int[] boardCardIndices, int[] handCards, int numberOfHands) {
+        Card[] boardCards = new Card[boardCardIndices.length];
+        for (int i = 0; i < boardCards.length; i++) {
+            boardCards[i] = Card.valueOf(boardCardIndices[i]);
+        }
+        Arrays.sort(boardCards);
+        int numberOfHoleCards = gameType.getNumberOfHoleCards();
+        HandFactory handFactory = getHandFactory(boardCards);
+        List<Hand> hands = new ArrayList<>();
+        for (int i = 0; i < numberOfHands; i++) {
+            Card[] cards = new Card[numberOfHoleCards];
+            for (int j = 0; j < numberOfHoleCards; j++) {
+                cards[j] = Card.valueOf(handCards[numberOfHoleCards * i + j]);
+            }
+            hands.add(handFactory.newHand(i, cards));
+        }
+        return hands;
+    }
+
+    @FunctionalInterface
+    private interface HandFactory {
+        Hand newHand(int index, Card[] handCards);
+    }
+
+    // the board is prepared once for all hands of the deal
+    private HandFactory getHandFactory(Card[] boardCards) {
+        if (gameType == GameType.OMAHA) {
+            OmahaEvaluator omahaEvaluator = OmahaEvaluator.of(boardCards);
+            return (index, handCards) -> new Hand(index, handCards, boardCards, omahaEvaluator);
+        }
+        BoardContext board = BoardContext.of(boardCards);
+        return (index, handCards) -> new Hand(index, handCards[0], handCards[1], boardCards, board, evaluator);
+    }
+
     public List<Hand> parseDeal(String dealString) {
         Card[] boardCards = getBoardCards(dealString);
         return getHands(dealString, boardCards);
     }
 
     public Card[] getBoardCards(String dealString) {
-        String boardCardsString = dealString.substring(0, 10);
+        if (dealString.length() < NUMBER_OF_CHARS_IN_BOARD) {
+            throw new RuntimeException("Invalid board string encountered: " + dealString);
+        }
+        String boardCardsString = dealString.substring(0, NUMBER_OF_CHARS_IN_BOARD);
         Card[] result = new Card[5];
+        long usedCards = 0;
         for (int i = 0; i < 5; i++) {
-            int cardStart = i * 2;
-            result[i] = new Card(boardCardsString.substring(cardStart, cardStart + 2));
+            result[i] = Card.valueOf(boardCardsString, i * 2);
+            usedCards = checkDuplicateCard(result[i], usedCards);
         }
         return result;
     }
 
     public List<Hand> getHands(String dealString, Card[] boardCards) {
-        String handsString = dealString.substring(10);
+        String handsString = dealString.substring(NUMBER_OF_CHARS_IN_BOARD);
         Arrays.sort(boardCards); // sort board cards once for all hands
+        HandFactory handFactory = getHandFactory(boardCards);
+        long boardCardMask = 0;
+        for (Card boardCard : boardCards) {
+            boardCardMask |= 1L << boardCard.getIndex();
+        }
         Scanner handsScanner = new Scanner(handsString);
         List<Hand> hands = new ArrayList<>();
         while (handsScanner.hasNext()) {
             String handString = handsScanner.next();
             checkHandString(handString);
-            Card card1 = new Card(handString.substring(0, 2));
-            Card card2 = new Card(handString.substring(2));
-            hands.add(new Hand(card1, card2, boardCards));
+            Card[] handCards = new Card[gameType.getNumberOfHoleCards()];
+            long usedCards = boardCardMask; // hands may share cards with each other
+            for (int i = 0; i < handCards.length; i++) {
+                handCards[i] = Card.valueOf(handString, 2 * i);
+                usedCards = checkDuplicateCard(handCards[i], usedCards);
+            }
+            hands.add(handFactory.newHand(hands.size(), handCards));
         }
         handsScanner.close();
         return hands;
     }
 
     private void checkHandString(String handString) {
-        if (handString.length() != NUMBER_OF_CHARS_IN_HOLDEM_HAND) {
+        if (handString.length() != 2 * gameType.getNumberOfHoleCards()) {
             throw new RuntimeException("Invalid hand string encountered: " + handString);
         }
     }
 
-    private void evaluateAndSortDealHands(List<Hand> deal) {
-        deal.stream().forEach(hand -> {
-            hand.evaluateHand();
-        });
-        Collections.sort(deal);
+    // returns the used cards including the given one, which must not have been used before
+    private long checkDuplicateCard(Card card, long usedCards) {
+        long cardBit = 1L << card.getIndex();
+        if ((usedCards & cardBit) != 0) {
+            throw new RuntimeException("Duplicate card encountered: " + card);
+        }
+        return usedCards | cardBit;
+    }
+
+    private void evaluateDealHands(List<Hand> deal) {
+        if (dealCache != null && !deal.isEmpty()) {
+            dealCache.evaluate(deal.get(0).getBoardCards(), deal);
+        } else {
+            for (int i = 0; i < deal.size(); i++) {
+                deal.get(i).evaluateHand();
+            }
+        }
+    }
+
+    // the board of 0, 3, 4 or 5 cards is followed by the hands, all cards of the deal must be different
+    public void processEquityDeal(String dealString, EquityCalculator calculator) {
+        try {
+            Scanner dealScanner = new Scanner(dealString);
+            List<String> tokens = new ArrayList<>();
+            while (dealScanner.hasNext()) {
+                tokens.add(dealScanner.next());
+            }
+            dealScanner.close();
+            int handLength = 2 * gameType.getNumberOfHoleCards();
+            String boardString = !tokens.isEmpty() && tokens.get(0).length() != handLength ? tokens.remove(0) : "";
+            if (boardString.length() == 2 || boardString.length() > NUMBER_OF_CHARS_IN_BOARD
+                    || boardString.length() % 2 != 0) {
+                throw new RuntimeException("Invalid board string encountered: " + boardString);
+            }
+            long usedCards = 0;
+            int[] boardCards = new int[boardString.length() / 2];
+            for (int i = 0; i < boardCards.length; i++) {
+                Card card = Card.valueOf(boardString, 2 * i);
+                usedCards = checkDuplicateCard(card, usedCards);
+                boardCards[i] = card.getIndex();
+            }
+            int[] holeCards = new int[2 * tokens.size()];
+            for (int i = 0; i < holeCards.length; i++) {
+                String handString = tokens.get(i / 2);
+                checkHandString(handString);
+                Card card = Card.valueOf(handString, 2 * (i % 2));
+                usedCards = checkDuplicateCard(card, usedCards);
+                holeCards[i] = card.getIndex();
+            }
+            printFormattedEquities(tokens, calculator.calculate(boardCards, holeCards));
+        } catch (RuntimeException e) {
+            String message = e.getMessage();
+            printLine(message + ", skipping line: " + dealString);
+        }
     }
 
-    private void printFormattedSortedHands(List<Hand> deal) {
+    private void printFormattedEquities(List<String> hands, EquityCalculator.Result equities) {
         StringBuilder outputBuilder = new StringBuilder();
-        String separator = "";
-        Hand previousHand = null;
-        for (Hand hand : deal) {
-            if (previousHand != null && hand.compareTo(previousHand, false) == 0) {
-                separator = EQUAL_VALUE_HAND_SEPARATOR;
+        for (int i = 0; i < hands.size(); i++) {
+            if (i > 0) {
+                outputBuilder.append(DIFFERENT_VALUE_HAND_SEPARATOR);
             }
-            outputBuilder.append(separator + hand);
-            separator = DIFFERENT_VALUE_HAND_SEPARATOR;
-            previousHand = hand;
+            outputBuilder.append(String.format(Locale.ROOT, "%s:win=%.2f%%,tie=%.2f%%", hands.get(i),
+                    equities.getWinPercentage(i), equities.getTiePercentage(i)));
         }
-        System.out.println(outputBuilder);
+        printLine(outputBuilder);
+    }
+
+    // an optional board of 3, 4 or 5 cards is followed by 2 to 6 ranges separated by slashes
+    public void processRangeEquityDeal(String dealString, RangeEquityCalculator calculator) {
+        try {
+            String[] rangeStrings = dealString.trim().split(RANGE_SEPARATOR, -1);
+            String firstToken = rangeStrings[0].split("\\s+", 2)[0];
+            int[] boardCards = new int[0];
+            if (isBoardString(firstToken)) {
+                rangeStrings[0] = rangeStrings[0].substring(firstToken.length());
+                long usedCards = 0;
+                boardCards = new int[firstToken.length() / 2];
+                for (int i = 0; i < boardCards.length; i++) {
+                    Card card = Card.valueOf(firstToken, 2 * i);
+                    usedCards = checkDuplicateCard(card, usedCards);
+                    boardCards[i] = card.getIndex();
+                }
+            }
+            if (rangeStrings.length < RangeEquityCalculator.MIN_NUMBER_OF_RANGES
+                    || rangeStrings.length > RangeEquityCalculator.MAX_NUMBER_OF_RANGES) {
+                throw new RuntimeException("Invalid number of ranges: " + rangeStrings.length);
+            }
+            List<HandRange> ranges = new ArrayList<>();
+            for (String rangeString : rangeStrings) {
+                ranges.add(HandRange.parse(rangeString));
+            }
+            printFormattedRangeEquities(ranges, calculator.calculate(boardCards, ranges));
+        } catch (RuntimeException e) {
+            String message = e.getMessage();
+            printLine(message + ", skipping line: " + dealString);
+        }
+    }
+
+    // 3, 4 or 5 valid cards, which can't be read as a range
+    private static boolean isBoardString(String token) {
+        if (token.length() < 6 || token.length() > NUMBER_OF_CHARS_IN_BOARD || token.length() % 2 != 0) {
+            return false;
+        }
+        for (int i = 0; i < token.length(); i += 2) {
+            if (Card.indexOf(token.charAt(i), token.charAt(i + 1)) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void printFormattedRangeEquities(List<HandRange> ranges, RangeEquityCalculator.Result equities) {
+        StringBuilder outputBuilder = new StringBuilder();
+        for (int i = 0; i < ranges.size(); i++) {
+            if (i > 0) {
+                outputBuilder.append(DIFFERENT_VALUE_HAND_SEPARATOR);
+            }
+            outputBuilder.append(String.format(Locale.ROOT, "%s:equity=%.2f%%,win=%.2f%%,tie=%.2f%%", ranges.get(i),
+                    equities.getEquityPercentage(i), equities.getWinPercentage(i), equities.getTiePercentage(i)));
+        }
+        printLine(outputBuilder);
+    }
+
+    // comma separated, with the starting hand classes in the first row and column
+    private void printPreflopMatrix(double[] matrix) {
+        int numberOfClasses = StartingHands.NUMBER_OF_CLASSES;
+        StringBuilder outputBuilder = new StringBuilder();
+        for (int column = 0; column < numberOfClasses; column++) {
+            outputBuilder.append(',').append(StartingHands.getClassName(column));
+        }
+        printLine(outputBuilder);
+        for (int row = 0; row < numberOfClasses; row++) {
+            outputBuilder.setLength(0);
+            outputBuilder.append(StartingHands.getClassName(row));
+            for (int column = 0; column < numberOfClasses; column++) {
+                outputBuilder.append(String.format(Locale.ROOT, ",%.2f", matrix[row * numberOfClasses + column]));
+            }
+            printLine(outputBuilder);
+        }
+    }
+
+    private void printLine(CharSequence line) {
+        output.putString(line.toString());
+        output.putLineSeparator();
+    }
+
+    byte[] processChunk(ParallelDealProcessor.DealChunk chunk) {
+        dealIndex = chunk.getFirstLineIndex();
+        byte[] chunkOutput = collectOutput(() -> chunk.processLines(this::processDeal));
+        if (metrics != null) {
+            metrics.sampleAllocatedBytes();
+        }
+        return chunkOutput;
+    }
+
+    byte[] processBinaryBlockOutput(BinaryDealReader.Block block) {
+        byte[] blockOutput = collectOutput(() -> processBinaryBlock(block));
+        if (metrics != null) {
+            metrics.sampleAllocatedBytes();
+        }
+        return blockOutput;
+    }
+
+    byte[] processConnectionInput(DealServer.Connection connection) {
+        dealIndex = connection.getNextDealIndex();
+        return collectOutput(() -> connection.processLines(this::processDeal));
+    }
+
+    // runs the processing with the output collected and returned instead of written
+    byte[] collectOutput(Runnable processing) {
+        output.clear();
+        try {
+            processing.run();
+            return output.toByteArray();
+        } finally {
+            output.clear();
+        }
+    }
+
+    static WritableByteChannel newStandardOutputChannel() {
+        return Channels.newChannel(new FileOutputStream(FileDescriptor.out));
+    }
+
+    private static OutputFormat getOutputFormat(List<String> arguments) {
+        String formatString = getParameterValue(arguments, OUTPUT_FORMAT_PARAMETER);
+        return formatString == null ? OutputFormat.TEXT : OutputFormat.fromString(formatString);
+    }
+
+    private static String getParameterValue(List<String> arguments, String parameter) {
+        int parameterIndex = arguments.indexOf(parameter);
+        if (parameterIndex < 0) {
+            return null;
+        }
+        if (parameterIndex + 1 >= arguments.size()) {
+            throw new IllegalArgumentException("Missing value for " + parameter);
+        }
+        return arguments.get(parameterIndex + 1);
+    }
+
+    private static GameType getGameType(List<String> arguments) {
+        return arguments.contains(OMAHA_PARAMETER) ? GameType.OMAHA : GameType.HOLDEM;
+    }
+
+    private static EvaluatorType getEvaluatorType(List<String> arguments, EvaluatorType defaultType) {
+        String evaluatorString = getParameterValue(arguments, EVALUATOR_PARAMETER);
+        return evaluatorString == null ? defaultType : EvaluatorType.fromString(evaluatorString);
+    }
+
+    private static long getLongParameterValue(List<String> arguments, String parameter, long defaultValue) {
+        String value = getParameterValue(arguments, parameter);
+        return value == null ? defaultValue : Long.parseLong(value);
+    }
+
+    // equity calculations are split between threads, while deals are processed one at a time
+    private static void processEquityInput(List<String> arguments) throws IOException {
+        if (arguments.contains(OMAHA_PARAMETER)) {
+            throw new IllegalArgumentException(EQUITY_PARAMETER + " is not supported with " + OMAHA_PARAMETER);
+        }
+        try (EquityCalculator calculator = new EquityCalculator(
+                getEvaluatorType(arguments, EvaluatorType.LOOKUP_TABLE),
+                (int) getLongParameterValue(arguments, THREADS_PARAMETER, Runtime.getRuntime().availableProcessors()),
+                getLongParameterValue(arguments, SAMPLES_PARAMETER, DEFAULT_EQUITY_SAMPLES),
+                getLongParameterValue(arguments, TIME_LIMIT_PARAMETER, 0),
+                getLongParameterValue(arguments, SEED_PARAMETER, 0))) {
+            App app = new App(null, GameType.HOLDEM);
+            processInputLines(arguments, app, line -> app.processEquityDeal(line, calculator));
+        }
+    }
+
+    // ranges are calculated one line at a time like equities, the preflop matrix ignores the input
+    private static void processRangeEquityInput(List<String> arguments) throws IOException {
+        if (arguments.contains(OMAHA_PARAMETER)) {
+            throw new IllegalArgumentException(RANGES_PARAMETER + " is not supported with " + OMAHA_PARAMETER);
+        }
+        boolean preflopMatrix = arguments.contains(PREFLOP_MATRIX_PARAMETER);
+        String cacheDirectory = getParameterValue(arguments, EQUITY_CACHE_PARAMETER);
+        EquityCache cache = cacheDirectory == null ? null : new EquityCache(Paths.get(cacheDirectory));
+        try (RangeEquityCalculator calculator = new RangeEquityCalculator(
+                getEvaluatorType(arguments, EvaluatorType.LOOKUP_TABLE),
+                (int) getLongParameterValue(arguments, THREADS_PARAMETER, Runtime.getRuntime().availableProcessors()),
+                getLongParameterValue(arguments, SAMPLES_PARAMETER,
+                        preflopMatrix ? DEFAULT_MATRIX_SAMPLES : DEFAULT_EQUITY_SAMPLES),
+                getLongParameterValue(arguments, SEED_PARAMETER, 0), cache)) {
+            App app = new App(null, GameType.HOLDEM);
+            if (preflopMatrix) {
+                app.outputChannel = newStandardOutputChannel();
+                app.printPreflopMatrix(calculator.calculatePreflopMatrix());
+                app.flushOutput();
+            } else {
+                processInputLines(arguments, app, line -> app.processRangeEquityDeal(line, calculator));
+            }
+        }
+        if (cache != null) {
+            System.err.println(cache.getStatistics());
+        }
+    }
+
+    // reads text lines from the input file or stdin, the output of each line is written before reading the next
+    private static void processInputLines(List<String> arguments, App app, Consumer<String> lineProcessor)
+            throws IOException {
+        app.outputChannel = newStandardOutputChannel();
+        String inputFile = getParameterValue(arguments, INPUT_FILE_PARAMETER);
+        BufferedReader reader = inputFile != null
+                ? Files.newBufferedReader(Paths.get(inputFile), Charset.defaultCharset())
+                : new BufferedReader(new InputStreamReader(System.in));
+        try {
+            String line = reader.readLine();
+            while (line != null) {
+                lineProcessor.accept(line);
+                app.flushOutput();
+                line = reader.readLine();
+            }
+        } finally {
+            reader.close();
+        }
+    }
+
+    // creates Apps configured by the arguments, one per processing thread
+    private static Supplier<App> getAppFactory(List<String> arguments, Collection<DealCache> dealCaches,
+            Collection<DealStatistics> dealStatistics, Collection<BoardPercentiles> boardPercentiles,
+            MetricsReporter metricsReporter) {
+        EvaluatorType evaluatorType = getEvaluatorType(arguments, EvaluatorType.LEGACY);
+        GameType gameType = getGameType(arguments);
+        OutputFormat outputFormat = getOutputFormat(arguments);
+        int cacheSize = (int) getLongParameterValue(arguments, CACHE_SIZE_PARAMETER, 0);
+        boolean analyze = arguments.contains(ANALYZE_PARAMETER);
+        if (analyze && outputFormat == OutputFormat.BINARY) {
+            throw new IllegalArgumentException(ANALYZE_PARAMETER + " reports are only text or ndjson");
+        }
+        int topHands = getTopHands(arguments);
+        if (analyze && topHands > 0) {
+            throw new IllegalArgumentException(ANALYZE_PARAMETER + " doesn't output the hands of deals");
+        }
+        boolean percentiles = arguments.contains(PERCENTILES_PARAMETER);
+        if (percentiles && (gameType == GameType.OMAHA || outputFormat != OutputFormat.TEXT || analyze
+                || topHands > 0)) {
+            throw new IllegalArgumentException(PERCENTILES_PARAMETER + " only outputs Hold'em deals as text");
+        }
+        boolean settle = arguments.contains(SETTLE_PARAMETER);
+        if (settle && (outputFormat != OutputFormat.TEXT || analyze || topHands > 0 || percentiles
+                || arguments.contains(BINARY_INPUT_FILE_PARAMETER))) {
+            throw new IllegalArgumentException(SETTLE_PARAMETER + " only outputs text of deals read as text");
+        }
+        int boardCacheSize = (int) getLongParameterValue(arguments, BOARD_CACHE_SIZE_PARAMETER,
+                DEFAULT_BOARD_CACHE_SIZE);
+        return () -> {
+            App app = new App(evaluatorType.newEvaluator(), gameType, outputFormat);
+            app.setTopHands(topHands);
+            if (cacheSize > 0) {
+                DealCache dealCache = new DealCache(cacheSize);
+                dealCaches.add(dealCache);
+                app.setDealCache(dealCache);
+            }
+            if (metricsReporter != null) {
+                app.setMetrics(metricsReporter.newRecorder());
+            }
+            if (settle) {
+                app.setPotSettlement(new PotSettlement());
+            }
+            if (percentiles) {
+                BoardPercentiles appBoardPercentiles = new BoardPercentiles(boardCacheSize);
+                boardPercentiles.add(appBoardPercentiles);
+                app.setBoardPercentiles(appBoardPercentiles);
+            }
+            if (analyze) {
+                DealStatistics statistics = new DealStatistics(gameType);
+                dealStatistics.add(statistics);
+                app.setStatistics(statistics);
+            }
+            return app;
+        };
+    }
+
+    // --winners outputs the strongest hands of each deal like --top 1
+    private static int getTopHands(List<String> arguments) {
+        if (arguments.contains(WINNERS_PARAMETER)) {
+            return 1;
+        }
+        long topHands = getLongParameterValue(arguments, TOP_PARAMETER, 0);
+        if (arguments.contains(TOP_PARAMETER) && (topHands < 1 || topHands > Integer.MAX_VALUE)) {
+            throw new IllegalArgumentException("Invalid value for " + TOP_PARAMETER + ": " + topHands);
+        }
+        return (int) topHands;
+    }
+
+    private static void processInputInParallel(List<String> arguments, Supplier<App> appFactory)
+            throws IOException {
+        int numberOfThreads = Integer.parseInt(getParameterValue(arguments, THREADS_PARAMETER));
+        ParallelDealProcessor processor = new ParallelDealProcessor(numberOfThreads, appFactory,
+                newStandardOutputChannel());
+        String inputFile = getParameterValue(arguments, INPUT_FILE_PARAMETER);
+        String binaryInputFile = getParameterValue(arguments, BINARY_INPUT_FILE_PARAMETER);
+        if (binaryInputFile != null) {
+            processor.processBinary(Paths.get(binaryInputFile), getGameType(arguments));
+        } else if (inputFile != null) {
+            processor.process(Paths.get(inputFile));
+        } else {
+            processor.process(Channels.newChannel(System.in));
+        }
+    }
+
+    private void processInput(List<String> arguments) throws IOException {
+        outputChannel = newStandardOutputChannel();
+        String inputFile = getParameterValue(arguments, INPUT_FILE_PARAMETER);
+        String binaryInputFile = getParameterValue(arguments, BINARY_INPUT_FILE_PARAMETER);
+        if (binaryInputFile != null) {
+            BinaryDealReader.read(Paths.get(binaryInputFile), gameType, this::processBinaryBlock);
+        } else if (inputFile != null) {
+            DealLineReader.read(Paths.get(inputFile), this::processDeal);
+        } else if (arguments.contains(NIO_PARAMETER) || potSettlement != null) {
+            DealLineReader.read(Channels.newChannel(System.in), this::processDeal);
+        } else {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(System.in));
+            String line = reader.readLine();
+            while (line != null) {
+                processDeal(line);
+                line = reader.readLine();
+            }
+        }
+        flushOutput();
+        if (metrics != null) {
+            metrics.sampleAllocatedBytes();
+        }
+    }
+
+    // all evaluators are compared unless one is selected, exits with status 1 if the check fails
+    private static void runExhaustiveEnumeration(List<String> arguments) {
+        String evaluatorString = getParameterValue(arguments, EVALUATOR_PARAMETER);
+        List<EvaluatorType> evaluatorTypes = evaluatorString == null ? Arrays.asList(EvaluatorType.values())
+                : Arrays.asList(EvaluatorType.fromString(evaluatorString));
+        ExhaustiveEnumeration enumeration = new ExhaustiveEnumeration(evaluatorTypes,
+                (int) getLongParameterValue(arguments, THREADS_PARAMETER, Runtime.getRuntime().availableProcessors()));
+        ExhaustiveEnumeration.Result result = enumeration.run();
+        System.out.print(result.getReport());
+        if (!result.isSuccessful()) {
+            System.exit(1);
+        }
+    }
+
+    private static void writeAnalysisReport(DealStatistics statistics, OutputFormat outputFormat)
+            throws IOException {
+        OutputBuffer report = new OutputBuffer(1 << 16);
+        if (outputFormat == OutputFormat.NDJSON) {
+            statistics.writeJson(report);
+        } else {
+            statistics.writeText(report);
+        }
+        report.writeTo(newStandardOutputChannel());
     }
 
     public static void main(String[] args) throws IOException {
         List<String> arguments = Arrays.asList(args);
         boolean measureExecutionTime = arguments.contains(TIME_EXECUTION_PARAMETER);
-        BufferedReader reader = new BufferedReader(new InputStreamReader(System.in));
+        Collection<DealCache> dealCaches = new ConcurrentLinkedQueue<>();
+        Collection<DealStatistics> dealStatistics = new ConcurrentLinkedQueue<>();
+        MetricsReporter metricsReporter = arguments.contains(METRICS_PARAMETER) ? new MetricsReporter() : null;
+        Collection<BoardPercentiles> boardPercentiles = new ConcurrentLinkedQueue<>();
+        Supplier<App> appFactory = getAppFactory(arguments, dealCaches, dealStatistics, boardPercentiles,
+                metricsReporter);
         long start = measureExecutionTime ? System.currentTimeMillis() : 0;
-        String line = reader.readLine();
-        while (line != null) {
-            new App().processDeal(line);
-            line = reader.readLine();
+        if (metricsReporter != null) {
+            metricsReporter.start(getLongParameterValue(arguments, METRICS_INTERVAL_PARAMETER,
+                    DEFAULT_METRICS_INTERVAL_SECONDS));
+        }
+        if (arguments.contains(SERVE_PARAMETER)) {
+            DealServer server = new DealServer(appFactory.get(),
+                    Integer.parseInt(getParameterValue(arguments, SERVE_PARAMETER)));
+            System.err.println("Serving deals on " + InetAddress.getLoopbackAddress().getHostAddress() + ":"
+                    + server.getPort());
+            server.serve();
+        } else if (arguments.contains(ENUMERATE_PARAMETER)) {
+            runExhaustiveEnumeration(arguments);
+        } else if (arguments.contains(EQUITY_PARAMETER)) {
+            processEquityInput(arguments);
+        } else if (arguments.contains(RANGES_PARAMETER) || arguments.contains(PREFLOP_MATRIX_PARAMETER)) {
+            processRangeEquityInput(arguments);
+        } else if (arguments.contains(THREADS_PARAMETER)) {
+            processInputInParallel(arguments, appFactory);
+        } else {
+            appFactory.get().processInput(arguments);
+        }
+        if (arguments.contains(ANALYZE_PARAMETER)) {
+            writeAnalysisReport(DealStatistics.merge(dealStatistics, getGameType(arguments)),
+                    getOutputFormat(arguments));
+        }
+        if (!dealCaches.isEmpty()) {
+            System.err.println(DealCache.getStatistics(dealCaches));
+        }
+        if (!boardPercentiles.isEmpty()) {
+            System.err.println(BoardPercentiles.getStatistics(boardPercentiles));
+        }
+        if (metricsReporter != null) {
+            metricsReporter.stop();
         }
         if (measureExecutionTime) {
             long end = System.currentTimeMillis();
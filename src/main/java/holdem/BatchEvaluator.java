@@ -0,0 +1,94 @@
+package holdem;
+
+// Evaluates Hold'em deals with the same number of hands in batches, for embedding: card indices (see
+// Card.getIndex()) come from primitive arrays and strengths and rank positions go into arrays given by the caller.
+// The boards and the hole cards are separate arrays, each deal's cards and each hand's results are contiguous, and
+// every hand is evaluated by the same straight line code on two precomputed board words, so nothing is allocated.
+// The only state is the shared lookup table, so one instance can be used by any number of threads.
+// The cards of a deal must be distinct (like those of a valid input line), which is not checked.
+public final class BatchEvaluator {
+    private static final int BOARD_SIZE = DealParser.NUMBER_OF_BOARD_CARDS;
+    private static final long[] SUIT_MASKS = new long[Card.NUMBER_OF_CARDS];
+
+    static {
+        for (int card = 0; card < Card.NUMBER_OF_CARDS; card++) {
+            SUIT_MASKS[card] = BoardContext.addToSuitMasks(0, card);
+        }
+    }
+
+    private final LookupTableEvaluator table = LookupTableEvaluator.getInstance();
+
+    // boardCards holds 5 cards per deal and holeCards 2 per hand, hand by hand and deal by deal; strengths and ranks
+    // get one value per hand in the same order, ranks may be null. Strengths are those of Hand.getStrength(), ranks
+    // are 1 for the strongest hands of a deal, tied hands share a rank and the next rank counts all stronger hands.
+    public void evaluate(int[] boardCards, int[] holeCards, int numberOfDeals, int handsPerDeal, int[] strengths,
+            int[] ranks) {
+        checkSizes(boardCards.length, holeCards.length, numberOfDeals, handsPerDeal, strengths, ranks);
+        for (int deal = 0; deal < numberOfDeals; deal++) {
+            long boardKeys = 0;
+            long boardSuitMasks = 0;
+            for (int i = deal * BOARD_SIZE; i < (deal + 1) * BOARD_SIZE; i++) {
+                boardKeys += LookupTableEvaluator.getCardKey(boardCards[i]);
+                boardSuitMasks |= SUIT_MASKS[boardCards[i]];
+            }
+            int firstHand = deal * handsPerDeal;
+            for (int hand = firstHand; hand < firstHand + handsPerDeal; hand++) {
+                strengths[hand] = evaluateHand(boardKeys, boardSuitMasks, holeCards[2 * hand], holeCards[2 * hand + 1]);
+            }
+            if (ranks != null) {
+                rank(strengths, ranks, firstHand, handsPerDeal);
+            }
+        }
+    }
+
+    // the same with the card indices as bytes, only reading the cards differs
+    public void evaluate(byte[] boardCards, byte[] holeCards, int numberOfDeals, int handsPerDeal, int[] strengths,
+            int[] ranks) {
+        checkSizes(boardCards.length, holeCards.length, numberOfDeals, handsPerDeal, strengths, ranks);
+        for (int deal = 0; deal < numberOfDeals; deal++) {
+            long boardKeys = 0;
+            long boardSuitMasks = 0;
+            for (int i = deal * BOARD_SIZE; i < (deal + 1) * BOARD_SIZE; i++) {
+                boardKeys += LookupTableEvaluator.getCardKey(boardCards[i]);
+                boardSuitMasks |= SUIT_MASKS[boardCards[i]];
+            }
+            int firstHand = deal * handsPerDeal;
+            for (int hand = firstHand; hand < firstHand + handsPerDeal; hand++) {
+                strengths[hand] = evaluateHand(boardKeys, boardSuitMasks, holeCards[2 * hand], holeCards[2 * hand + 1]);
+            }
+            if (ranks != null) {
+                rank(strengths, ranks, firstHand, handsPerDeal);
+            }
+        }
+    }
+
+    // the board words are the sums of the card keys and the suit masks of the board cards
+    private int evaluateHand(long boardKeys, long boardSuitMasks, int card1, int card2) {
+        return table.evaluate(
+                boardKeys + LookupTableEvaluator.getCardKey(card1) + LookupTableEvaluator.getCardKey(card2),
+                boardSuitMasks | SUIT_MASKS[card1] | SUIT_MASKS[card2]);
+    }
+
+    private static void checkSizes(int boardCards, int holeCards, int numberOfDeals, int handsPerDeal,
+            int[] strengths, int[] ranks) {
+        long hands = (long) numberOfDeals * handsPerDeal;
+        if (numberOfDeals < 0 || handsPerDeal < 0 || boardCards < (long) BOARD_SIZE * numberOfDeals
+                || holeCards < 2 * hands || strengths.length < hands || ranks != null && ranks.length < hands) {
+            throw new IllegalArgumentException("Arrays too small for " + numberOfDeals + " deals of " + handsPerDeal
+                    + " hands");
+        }
+    }
+
+    // counts the stronger hands of the deal for each hand, branch free, which beats sorting for a few hands
+    private static void rank(int[] strengths, int[] ranks, int firstHand, int numberOfHands) {
+        int end = firstHand + numberOfHands;
+        for (int hand = firstHand; hand < end; hand++) {
+            int strength = strengths[hand];
+            int strongerHands = 0;
+            for (int other = firstHand; other < end; other++) {
+                strongerHands += (strength - strengths[other]) >>> 31; // strengths are below 2^24
+            }
+            ranks[hand] = 1 + strongerHands;
+        }
+    }
+}
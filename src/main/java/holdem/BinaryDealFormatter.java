@@ -0,0 +1,35 @@
+package holdem;
+
+import java.nio.charset.StandardCharsets;
+
+// Compact records of unsigned LEB128 varints. A deal record is DEAL_RECORD, the deal index, the number of hands
+// and for each hand in ascending strength (index in the line << 1 | 1 if it ties with the previous hand). An error
+// record is ERROR_RECORD, the deal index and the message and the line, each as a byte length and UTF-8 bytes.
+public final class BinaryDealFormatter implements DealFormatter {
+    public static final byte DEAL_RECORD = 0;
+    public static final byte ERROR_RECORD = 1;
+
+    @Override
+    public void formatDeal(OutputBuffer output, long dealIndex, SortedDeal sortedDeal) {
+        output.put(DEAL_RECORD);
+        output.putVarint(dealIndex);
+        output.putVarint(sortedDeal.size());
+        for (int i = 0; i < sortedDeal.size(); i++) {
+            output.putVarint((long) sortedDeal.getHand(i).getIndex() << 1 | (sortedDeal.isTiedWithPrevious(i) ? 1 : 0));
+        }
+    }
+
+    @Override
+    public void formatError(OutputBuffer output, long dealIndex, String message, String line) {
+        output.put(ERROR_RECORD);
+        output.putVarint(dealIndex);
+        putString(output, message);
+        putString(output, line);
+    }
+
+    private static void putString(OutputBuffer output, String string) {
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        output.putVarint(bytes.length);
+        output.put(bytes);
+    }
+}
@@ -0,0 +1,194 @@
+package holdem;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+// Reads files in the binary deal format of BinaryDealWriter, mapped into memory window by window. Blocks are handed
+// out as views of the mapped file without copying, and can be decoded on any thread, one deal at a time.
+public final class BinaryDealReader {
+    private static final long MAPPED_WINDOW_SIZE = 1L << 28;
+    private static final int CARD_MASK = (1 << BinaryDealWriter.BITS_PER_CARD) - 1;
+
+    private BinaryDealReader() {
+    }
+
+    public static void read(Path file, GameType gameType, Consumer<Block> blockHandler) throws IOException {
+        try (FileChannel channel = FileChannel.open(file)) {
+            long size = channel.size();
+            if (size < BinaryDealWriter.FILE_HEADER_SIZE) {
+                throw new IOException("Not a binary deal file: " + file);
+            }
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, BinaryDealWriter.FILE_HEADER_SIZE);
+            if (header.getInt(0) != BinaryDealWriter.MAGIC) {
+                throw new IOException("Not a binary deal file: " + file);
+            }
+            int numberOfHoleCards = header.getInt(4);
+            if (numberOfHoleCards != gameType.getNumberOfHoleCards()) {
+                throw new IOException("Binary deal file of hands of " + numberOfHoleCards + " cards, expected "
+                        + gameType.getNumberOfHoleCards() + ": " + file);
+            }
+            long windowStart = BinaryDealWriter.FILE_HEADER_SIZE;
+            long dealIndex = 0;
+            while (windowStart < size) {
+                long windowSize = Math.min(MAPPED_WINDOW_SIZE, size - windowStart);
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, windowSize);
+                int blockStart = 0;
+                while (blockStart + BinaryDealWriter.BLOCK_HEADER_SIZE <= windowSize) { // whole blocks only
+                    int numberOfDeals = window.getInt(blockStart);
+                    int recordsStart = blockStart + BinaryDealWriter.BLOCK_HEADER_SIZE;
+                    int recordsLength = window.getInt(blockStart + 4);
+                    if (recordsLength < 0 || recordsLength > windowSize - recordsStart) {
+                        break;
+                    }
+                    ByteBuffer records = window.duplicate();
+                    ((Buffer) records).position(recordsStart).limit(recordsStart + recordsLength);
+                    blockHandler.accept(new Block(records.slice(), dealIndex, numberOfDeals, numberOfHoleCards));
+                    dealIndex += numberOfDeals;
+                    blockStart = recordsStart + recordsLength;
+                }
+                if (blockStart == 0) {
+                    throw new IOException("Truncated or invalid block at offset " + windowStart + ": " + file);
+                }
+                windowStart += blockStart;
+            }
+        }
+    }
+
+    // the deals of a block, decoded by next() into arrays that are reused for the following deal
+    public static final class Block {
+        private final ByteBuffer records;
+        private final long firstDealIndex;
+        private final int numberOfDeals;
+        private final int numberOfHoleCards;
+        private final int[] boardCards = new int[DealParser.NUMBER_OF_BOARD_CARDS];
+        private int[] handCards = new int[64];
+        private int numberOfHands;
+        private String invalidLine; // null for a valid deal
+        private int position;
+        private int decodedDeals;
+
+        private Block(ByteBuffer records, long firstDealIndex, int numberOfDeals, int numberOfHoleCards) {
+            this.records = records;
+            this.firstDealIndex = firstDealIndex;
+            this.numberOfDeals = numberOfDeals;
+            this.numberOfHoleCards = numberOfHoleCards;
+        }
+
+        // index of the first deal of the block in the whole file
+        public long getFirstDealIndex() {
+            return firstDealIndex;
+        }
+
+        public int getNumberOfDeals() {
+            return numberOfDeals;
+        }
+
+        // decodes the next deal, returns false after the last one
+        public boolean next() {
+            if (decodedDeals == numberOfDeals) {
+                return false;
+            }
+            long recordLength = readVarint();
+            if (recordLength > records.limit() - position) {
+                throw invalidRecord();
+            }
+            int recordEnd = (int) (position + recordLength);
+            long recordHeader = readVarint();
+            if (recordHeader == BinaryDealWriter.INVALID_LINE && position <= recordEnd) {
+                byte[] line = new byte[recordEnd - position];
+                for (int i = 0; i < line.length; i++) {
+                    line[i] = records.get(position + i);
+                }
+                invalidLine = new String(line, Charset.defaultCharset());
+            } else if ((recordHeader & BinaryDealWriter.INVALID_LINE) == 0) {
+                invalidLine = null;
+                decodeCards(recordHeader >>> 1, recordEnd);
+            } else {
+                throw invalidRecord();
+            }
+            position = recordEnd;
+            decodedDeals++;
+            return true;
+        }
+
+        private void decodeCards(long hands, int recordEnd) {
+            if (hands > recordEnd - position // each hand takes more than a byte
+                    || (DealParser.NUMBER_OF_BOARD_CARDS + numberOfHoleCards * hands) * BinaryDealWriter.BITS_PER_CARD
+                    > 8L * (recordEnd - position)) {
+                throw invalidRecord();
+            }
+            numberOfHands = (int) hands;
+            int numberOfHandCards = numberOfHoleCards * numberOfHands;
+            int numberOfCards = DealParser.NUMBER_OF_BOARD_CARDS + numberOfHandCards;
+            if (numberOfHandCards > handCards.length) {
+                handCards = new int[Math.max(2 * handCards.length, numberOfHandCards)];
+            }
+            long bits = 0;
+            int numberOfBits = 0;
+            int bytePosition = position;
+            for (int i = 0; i < numberOfCards; i++) {
+                while (numberOfBits < BinaryDealWriter.BITS_PER_CARD) {
+                    bits = bits << 8 | records.get(bytePosition++) & 0xFF;
+                    numberOfBits += 8;
+                }
+                numberOfBits -= BinaryDealWriter.BITS_PER_CARD;
+                int card = (int) (bits >>> numberOfBits) & CARD_MASK;
+                if (card >= Card.NUMBER_OF_CARDS) {
+                    throw invalidRecord();
+                }
+                if (i < DealParser.NUMBER_OF_BOARD_CARDS) {
+                    boardCards[i] = card;
+                } else {
+                    handCards[i - DealParser.NUMBER_OF_BOARD_CARDS] = card;
+                }
+            }
+        }
+
+        private long readVarint() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                if (position >= records.limit()) {
+                    throw invalidRecord();
+                }
+                byte b = records.get(position++);
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+            throw invalidRecord();
+        }
+
+        private IllegalStateException invalidRecord() {
+            return new IllegalStateException("Invalid binary deal record of deal " + (firstDealIndex + decodedDeals));
+        }
+
+        // whether the current deal is a line that is not a valid deal
+        public boolean isInvalidLine() {
+            return invalidLine != null;
+        }
+
+        public String getInvalidLine() {
+            return invalidLine;
+        }
+
+        public int[] getBoardCards() {
+            return boardCards;
+        }
+
+        // card indices of the hands, GameType.getNumberOfHoleCards() per hand
+        public int[] getHandCards() {
+            return handCards;
+        }
+
+        public int getNumberOfHands() {
+            return numberOfHands;
+        }
+    }
+}
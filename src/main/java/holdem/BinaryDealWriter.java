@@ -0,0 +1,103 @@
+package holdem;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+// Writes deals in the compact binary deal format read by BinaryDealReader. A file starts with the magic number
+// "HDB1" and the number of hole cards per hand (2 for Hold'em, 4 for Omaha) as 4 byte big-endian ints. Blocks of up
+// to DEALS_PER_BLOCK deals follow, each with a header of its number of deals and the byte length of its records,
+// so a file can be split into blocks without decoding the deals. A deal record is its byte length as an unsigned
+// LEB128 varint followed by the varint numberOfHands << 1 and the 5 board cards and the hole cards of each hand as
+// 6 bit card indices, most significant bit first, the last byte padded with zero bits. Lines that aren't valid
+// deals are kept as records of the varint 1 followed by the bytes of the line, so their errors are reported again.
+public final class BinaryDealWriter implements Closeable {
+    static final int MAGIC = 0x48444231;
+    static final int FILE_HEADER_SIZE = 8;
+    static final int BLOCK_HEADER_SIZE = 8;
+    static final int DEALS_PER_BLOCK = 4096;
+    static final int BITS_PER_CARD = 6;
+    static final int INVALID_LINE = 1;
+
+    private final WritableByteChannel channel;
+    private final int numberOfHoleCards;
+    private final ByteBuffer header = ByteBuffer.allocate(BLOCK_HEADER_SIZE);
+    private final OutputBuffer records = new OutputBuffer(1 << 16);
+    private int numberOfDeals;
+
+    public BinaryDealWriter(WritableByteChannel channel, GameType gameType) throws IOException {
+        this.channel = channel;
+        this.numberOfHoleCards = gameType.getNumberOfHoleCards();
+        writeHeader(MAGIC, numberOfHoleCards);
+    }
+
+    // the hole cards are given for each hand in turn, GameType.getNumberOfHoleCards() per hand
+    public void writeDeal(int[] boardCards, int[] handCards, int numberOfHands) throws IOException {
+        int numberOfCards = DealParser.NUMBER_OF_BOARD_CARDS + numberOfHoleCards * numberOfHands;
+        long recordHeader = (long) numberOfHands << 1;
+        records.putVarint(getVarintSize(recordHeader) + (numberOfCards * BITS_PER_CARD + 7) / 8);
+        records.putVarint(recordHeader);
+        long bits = 0;
+        int numberOfBits = 0;
+        for (int i = 0; i < numberOfCards; i++) {
+            int card = i < DealParser.NUMBER_OF_BOARD_CARDS ? boardCards[i]
+                    : handCards[i - DealParser.NUMBER_OF_BOARD_CARDS];
+            bits = bits << BITS_PER_CARD | card;
+            numberOfBits += BITS_PER_CARD;
+            while (numberOfBits >= 8) {
+                numberOfBits -= 8;
+                records.put((byte) (bits >>> numberOfBits));
+            }
+        }
+        if (numberOfBits > 0) {
+            records.put((byte) (bits << (8 - numberOfBits)));
+        }
+        endDeal();
+    }
+
+    // the line is kept as it is, without its terminator
+    public void writeInvalidLine(byte[] line) throws IOException {
+        records.putVarint(getVarintSize(INVALID_LINE) + line.length);
+        records.putVarint(INVALID_LINE);
+        records.put(line);
+        endDeal();
+    }
+
+    private static int getVarintSize(long value) {
+        int size = 1;
+        for (long remaining = value >>> 7; remaining != 0; remaining >>>= 7) {
+            size++;
+        }
+        return size;
+    }
+
+    private void endDeal() throws IOException {
+        numberOfDeals++;
+        if (numberOfDeals == DEALS_PER_BLOCK) {
+            writeBlock();
+        }
+    }
+
+    private void writeBlock() throws IOException {
+        if (numberOfDeals > 0) {
+            writeHeader(numberOfDeals, records.size());
+            records.writeTo(channel);
+            numberOfDeals = 0;
+        }
+    }
+
+    private void writeHeader(int first, int second) throws IOException {
+        ((Buffer) header).clear(); // Buffer, as ByteBuffer.clear() does not exist on Java 8
+        header.putInt(first).putInt(second);
+        ((Buffer) header).flip();
+        OutputBuffer.write(channel, header);
+    }
+
+    // writes the last block, the channel stays open
+    @Override
+    public void close() throws IOException {
+        writeBlock();
+    }
+}
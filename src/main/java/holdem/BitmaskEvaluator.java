@@ -0,0 +1,113 @@
+package holdem;
+
+// Table free evaluator working only with bit operations on 13 bit rank masks. Cards are accumulated into four
+// suit masks (16 bits apart in one long) and a rank count word holding the masks of ranks present at least once,
+// twice, three and four times (also 16 bits apart). Works for 5 to 7 cards and allocates nothing.
+public final class BitmaskEvaluator implements HandStrengthEvaluator {
+    private static final int MASK_BITS = BoardContext.SUIT_MASK_BITS;
+    private static final int RANK_MASK = BoardContext.RANK_MASK;
+    private static final int ACE = 12;
+    private static final int KICKER_BITS = 4;
+
+    @Override
+    public int evaluate(int[] cards) {
+        long suitMasks = 0;
+        long rankCounts = 0;
+        for (int card : cards) {
+            suitMasks = BoardContext.addToSuitMasks(suitMasks, card);
+            rankCounts = BoardContext.addToRankCounts(rankCounts, card);
+        }
+        return evaluate(suitMasks, rankCounts, 0, 3, true);
+    }
+
+    @Override
+    public int evaluate(BoardContext board, int holeCard1, int holeCard2) {
+        long suitMasks = BoardContext.addToSuitMasks(board.getSuitMasks(), holeCard1);
+        suitMasks = BoardContext.addToSuitMasks(suitMasks, holeCard2);
+        long rankCounts = BoardContext.addToRankCounts(board.getRankCounts(), holeCard1);
+        rankCounts = BoardContext.addToRankCounts(rankCounts, holeCard2);
+        int flushSuit = board.getFlushSuit();
+        return evaluate(suitMasks, rankCounts, flushSuit, flushSuit, board.isStraightPossible());
+    }
+
+    // only suits in [firstFlushSuit, lastFlushSuit] are checked for a flush
+    static int evaluate(long suitMasks, long rankCounts, int firstFlushSuit, int lastFlushSuit,
+            boolean straightPossible) {
+        for (int suit = Math.max(firstFlushSuit, 0); suit <= lastFlushSuit; suit++) {
+            int flushMask = (int) (suitMasks >>> suit * MASK_BITS) & RANK_MASK;
+            if (Integer.bitCount(flushMask) >= 5) {
+                int straightFlushTopRank = getStraightTopRank(flushMask);
+                return straightFlushTopRank >= 0
+                        ? strength(HandRanking.STRAIGHT_FLUSH, straightFlushTopRank)
+                        : strength(HandRanking.FLUSH) | kickers(flushMask, 5, HandStrength.RANKING_SHIFT);
+            }
+        }
+
+        int ranks = (int) rankCounts & RANK_MASK;
+        int pairs = (int) (rankCounts >>> MASK_BITS) & RANK_MASK;
+        int threes = (int) (rankCounts >>> 2 * MASK_BITS) & RANK_MASK;
+        int fours = (int) (rankCounts >>> 3 * MASK_BITS) & RANK_MASK;
+        if (fours != 0) {
+            int fourOfAKindRank = highestRank(fours);
+            return strength(HandRanking.FOUR_OF_A_KIND, fourOfAKindRank)
+                    | kickers(ranks & ~(1 << fourOfAKindRank), 1, HandStrength.RANKING_SHIFT - KICKER_BITS);
+        }
+        int threeOfAKindRank = highestRank(threes);
+        int fullHousePairs = pairs & ~(1 << threeOfAKindRank);
+        if (threes != 0 && fullHousePairs != 0) {
+            return strength(HandRanking.FULL_HOUSE, threeOfAKindRank)
+                    | highestRank(fullHousePairs) << HandStrength.RANKING_SHIFT - 2 * KICKER_BITS;
+        }
+        int straightTopRank = straightPossible ? getStraightTopRank(ranks) : -1;
+        if (straightTopRank >= 0) {
+            return strength(HandRanking.STRAIGHT, straightTopRank);
+        }
+        if (threes != 0) {
+            return strength(HandRanking.THREE_OF_A_KIND, threeOfAKindRank)
+                    | kickers(ranks & ~threes, 2, HandStrength.RANKING_SHIFT - KICKER_BITS);
+        }
+        if (Integer.bitCount(pairs) >= 2) {
+            int highPairRank = highestRank(pairs);
+            int lowPairRank = highestRank(pairs & ~(1 << highPairRank));
+            int twoPairs = 1 << highPairRank | 1 << lowPairRank;
+            return strength(HandRanking.TWO_PAIRS, highPairRank)
+                    | lowPairRank << HandStrength.RANKING_SHIFT - 2 * KICKER_BITS
+                    | kickers(ranks & ~twoPairs, 1, HandStrength.RANKING_SHIFT - 2 * KICKER_BITS);
+        }
+        if (pairs != 0) {
+            return strength(HandRanking.PAIR, highestRank(pairs))
+                    | kickers(ranks & ~pairs, 3, HandStrength.RANKING_SHIFT - KICKER_BITS);
+        }
+        return strength(HandRanking.HIGH_CARD) | kickers(ranks, 5, HandStrength.RANKING_SHIFT);
+    }
+
+    static int getStraightTopRank(int rankMask) {
+        int withLowAce = rankMask << 1 | rankMask >>> ACE; // bit 0 is the ace, bit (rank + 1) is rank
+        int straightTops = withLowAce & withLowAce << 1 & withLowAce << 2 & withLowAce << 3 & withLowAce << 4;
+        return straightTops == 0 ? -1 : highestRank(straightTops) - 1;
+    }
+
+    private static int highestRank(int rankMask) {
+        return 31 - Integer.numberOfLeadingZeros(rankMask);
+    }
+
+    private static int strength(HandRanking ranking) {
+        return ranking.ordinal() << HandStrength.RANKING_SHIFT;
+    }
+
+    private static int strength(HandRanking ranking, int rank) {
+        return strength(ranking) | rank << HandStrength.RANKING_SHIFT - KICKER_BITS;
+    }
+
+    // packs the given number of highest ranks from the mask below the given bit position
+    private static int kickers(int rankMask, int numberOfKickers, int shift) {
+        int result = 0;
+        int remainingMask = rankMask;
+        for (int i = 1; i <= numberOfKickers; i++) {
+            int rank = highestRank(remainingMask);
+            result |= rank << shift - i * KICKER_BITS;
+            remainingMask &= ~(1 << rank);
+        }
+        return result;
+    }
+}
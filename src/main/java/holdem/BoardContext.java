@@ -0,0 +1,117 @@
+package holdem;
+
+// State of the board cards computed once per deal, so that evaluating a hand only needs to add its 2 hole cards.
+// Suit masks and rank counts use the encoding of BitmaskEvaluator, card keys the encoding of LookupTableEvaluator.
+// An App resets one instance for each deal of the same number of board cards instead of creating a new one.
+public final class BoardContext {
+    static final int SUIT_MASK_BITS = 16;
+    static final int RANK_MASK = 0x1FFF;
+    private static final int STRAIGHT_WINDOW = 0x1F;
+    private static final int NUMBER_OF_HOLE_CARDS = 2;
+
+    private int[] cards;
+    private long suitMasks;
+    private long rankCounts;
+    private long cardKeys;
+    private int flushSuit;
+    private boolean straightPossible;
+
+    public BoardContext(int[] boardCards) {
+        this.cards = boardCards.clone();
+        computeState();
+    }
+
+    // takes the state of new board cards, reusing the card array when they are as many as before
+    void reset(int[] boardCards) {
+        if (boardCards.length == cards.length) {
+            System.arraycopy(boardCards, 0, cards, 0, cards.length);
+        } else {
+            cards = boardCards.clone();
+        }
+        computeState();
+    }
+
+    private void computeState() {
+        long boardSuitMasks = 0;
+        long boardRankCounts = 0;
+        long boardCardKeys = 0;
+        for (int card : cards) {
+            boardSuitMasks = addToSuitMasks(boardSuitMasks, card);
+            boardRankCounts = addToRankCounts(boardRankCounts, card);
+            boardCardKeys += LookupTableEvaluator.getCardKey(card);
+        }
+        this.suitMasks = boardSuitMasks;
+        this.rankCounts = boardRankCounts;
+        this.cardKeys = boardCardKeys;
+        this.flushSuit = findFlushSuit(boardSuitMasks);
+        this.straightPossible = isStraightPossible((int) boardRankCounts & RANK_MASK);
+    }
+
+    public static BoardContext of(Card[] boardCards) {
+        int[] cardIndices = new int[boardCards.length];
+        for (int i = 0; i < boardCards.length; i++) {
+            cardIndices[i] = boardCards[i].getIndex();
+        }
+        return new BoardContext(cardIndices);
+    }
+
+    static long addToSuitMasks(long suitMasks, int card) {
+        return suitMasks | 1L << ((card & 3) * SUIT_MASK_BITS + (card >>> 2));
+    }
+
+    // the rank count word holds the masks of ranks present at least once, twice, three and four times
+    static long addToRankCounts(long rankCounts, int card) {
+        int rank = card >>> 2;
+        return rankCounts | (rankCounts & 0x0000_0001_0001_0001L << rank) << SUIT_MASK_BITS | 1L << rank;
+    }
+
+    // the only suit that can make a flush with the hole cards (two suits can't both have 3 of 5 cards), or -1
+    private static int findFlushSuit(long suitMasks) {
+        for (int suit = 0; suit < 4; suit++) {
+            int suitRankMask = (int) (suitMasks >>> suit * SUIT_MASK_BITS) & RANK_MASK;
+            if (Integer.bitCount(suitRankMask) + NUMBER_OF_HOLE_CARDS >= 5) {
+                return suit;
+            }
+        }
+        return -1;
+    }
+
+    // whether any 5 rank straight window (including the ace low one) can be completed with the hole cards
+    private static boolean isStraightPossible(int rankMask) {
+        int withLowAce = rankMask << 1 | rankMask >>> 12;
+        for (int windowStart = 0; windowStart <= 9; windowStart++) {
+            if (Integer.bitCount(withLowAce >>> windowStart & STRAIGHT_WINDOW) + NUMBER_OF_HOLE_CARDS >= 5) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int[] getCards() {
+        return cards;
+    }
+
+    long getSuitMasks() {
+        return suitMasks;
+    }
+
+    int getSuitRankMask(int suit) {
+        return (int) (suitMasks >>> suit * SUIT_MASK_BITS) & RANK_MASK;
+    }
+
+    long getRankCounts() {
+        return rankCounts;
+    }
+
+    long getCardKeys() {
+        return cardKeys;
+    }
+
+    int getFlushSuit() {
+        return flushSuit;
+    }
+
+    boolean isStraightPossible() {
+        return straightPossible;
+    }
+}
@@ -0,0 +1,145 @@
+package holdem;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// The strengths of all C(47, 2) = 1081 two card holdings possible on a Hold'em board, evaluated once per board with
+// the lookup table and sorted, so that where a hand stands among them is found by binary search. Boards that differ
+// only by a permutation of suits have the same sorted strengths, so they share an entry of a bounded LRU cache,
+// keyed by the smallest card mask of the board under the 24 permutations. Not thread safe, each App has its own.
+public final class BoardPercentiles {
+    public static final int NUMBER_OF_HOLDINGS = 1081;
+    private static final int NUMBER_OF_SUITS = 4;
+    private static final int[][] SUIT_PERMUTATIONS = new int[24][];
+
+    static {
+        int permutation = 0;
+        for (int first = 0; first < NUMBER_OF_SUITS; first++) {
+            for (int second = 0; second < NUMBER_OF_SUITS; second++) {
+                for (int third = 0; third < NUMBER_OF_SUITS; third++) {
+                    int fourth = 6 - first - second - third;
+                    if (first != second && first != third && second != third) {
+                        SUIT_PERMUTATIONS[permutation++] = new int[] { first, second, third, fourth };
+                    }
+                }
+            }
+        }
+    }
+
+    private final LookupTableEvaluator table = LookupTableEvaluator.getInstance();
+    private final Map<Long, int[]> strengths;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public BoardPercentiles(int maximumSize) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("Invalid cache size: " + maximumSize);
+        }
+        this.strengths = new LinkedHashMap<Long, int[]>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, int[]> eldest) {
+                if (size() > maximumSize) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    // the strengths of the holdings of the 5 board cards in ascending order, not to be modified
+    public int[] getHoldingStrengths(int[] boardCards) {
+        Long key = getKey(boardCards);
+        int[] holdingStrengths = strengths.get(key);
+        if (holdingStrengths != null) {
+            hits++;
+            return holdingStrengths;
+        }
+        misses++;
+        holdingStrengths = evaluateHoldings(boardCards);
+        strengths.put(key, holdingStrengths);
+        return holdingStrengths;
+    }
+
+    private static long getKey(int[] boardCards) {
+        long key = Long.MAX_VALUE;
+        for (int[] permutation : SUIT_PERMUTATIONS) {
+            long mask = 0;
+            for (int card : boardCards) {
+                mask |= 1L << (card & ~3 | permutation[card & 3]);
+            }
+            key = Math.min(key, mask);
+        }
+        return key;
+    }
+
+    private int[] evaluateHoldings(int[] boardCards) {
+        BoardContext board = new BoardContext(boardCards);
+        long boardMask = 0;
+        for (int card : boardCards) {
+            boardMask |= 1L << card;
+        }
+        int[] holdingStrengths = new int[NUMBER_OF_HOLDINGS];
+        int holding = 0;
+        for (int card1 = 0; card1 < Card.NUMBER_OF_CARDS; card1++) {
+            for (int card2 = card1 + 1; card2 < Card.NUMBER_OF_CARDS; card2++) {
+                if ((boardMask & (1L << card1 | 1L << card2)) == 0) {
+                    holdingStrengths[holding++] = table.evaluate(board, card1, card2);
+                }
+            }
+        }
+        Arrays.sort(holdingStrengths);
+        return holdingStrengths;
+    }
+
+    // the number of holdings weaker than the strength
+    public static int countWeaker(int[] holdingStrengths, int strength) {
+        int low = 0;
+        int high = holdingStrengths.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (holdingStrengths[middle] < strength) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    // the number of holdings stronger than the strength
+    public static int countStronger(int[] holdingStrengths, int strength) {
+        return holdingStrengths.length - countWeaker(holdingStrengths, strength + 1);
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public int size() {
+        return strengths.size();
+    }
+
+    // totals of the given caches, e.g. of all worker threads
+    public static String getStatistics(Collection<BoardPercentiles> caches) {
+        long totalHits = caches.stream().mapToLong(BoardPercentiles::getHits).sum();
+        long totalMisses = caches.stream().mapToLong(BoardPercentiles::getMisses).sum();
+        long totalEvictions = caches.stream().mapToLong(BoardPercentiles::getEvictions).sum();
+        long totalSize = caches.stream().mapToLong(BoardPercentiles::size).sum();
+        return "Board cache: " + totalHits + " hits, " + totalMisses + " misses, " + totalEvictions + " evictions, "
+                + totalSize + " entries";
+    }
+}
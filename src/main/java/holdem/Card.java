@@ -1,21 +1,81 @@
 package holdem;
 
-import java.util.NoSuchElementException;
-import java.util.stream.Stream;
-
-public class Card implements Comparable<Card> {
-    private Suit suit;
-    private Rank rank;
-
-    public Card(String cardString) {
-        try {
-            String rankString = cardString.substring(0, 1);
-            String suitString = cardString.substring(1);
-            this.rank = Stream.of(Rank.values()).filter(x -> x.toString().equals(rankString)).findFirst().get();
-            this.suit = Stream.of(Suit.values()).filter(x -> x.toString().equals(suitString)).findFirst().get();
-        } catch (NoSuchElementException e) {
+import java.util.Arrays;
+
+public final class Card implements Comparable<Card> {
+    public static final int NUMBER_OF_CARDS = 52;
+    private static final Rank[] RANKS = Rank.values();
+    private static final Suit[] SUITS = Suit.values();
+    private static final Card[] CARDS = new Card[NUMBER_OF_CARDS]; // only these instances exist, indexed by getIndex()
+    private static final int[] RANK_ORDINALS_BY_CHAR = new int[128];
+    private static final int[] SUIT_ORDINALS_BY_CHAR = new int[128];
+    private static final int[] ALPHABETICAL_ORDERS = new int[NUMBER_OF_CARDS];
+
+    static {
+        Arrays.fill(RANK_ORDINALS_BY_CHAR, -1);
+        Arrays.fill(SUIT_ORDINALS_BY_CHAR, -1);
+        for (Rank rank : RANKS) {
+            RANK_ORDINALS_BY_CHAR[rank.toString().charAt(0)] = rank.ordinal();
+        }
+        for (Suit suit : SUITS) {
+            SUIT_ORDINALS_BY_CHAR[suit.toString().charAt(0)] = suit.ordinal();
+        }
+        for (int index = 0; index < NUMBER_OF_CARDS; index++) {
+            CARDS[index] = new Card(index);
+        }
+        Card[] alphabeticalCards = CARDS.clone();
+        Arrays.sort(alphabeticalCards, (card1, card2) -> card1.stringValue.compareTo(card2.stringValue));
+        for (int i = 0; i < NUMBER_OF_CARDS; i++) {
+            ALPHABETICAL_ORDERS[alphabeticalCards[i].index] = i;
+        }
+    }
+
+    private final Suit suit;
+    private final Rank rank;
+    private final int index;
+    private final String stringValue;
+
+    private Card(int index) {
+        this.rank = RANKS[index >>> 2];
+        this.suit = SUITS[index & 3];
+        this.index = index;
+        this.stringValue = rank.toString() + suit.toString();
+    }
+
+    public static Card valueOf(int index) {
+        return CARDS[index];
+    }
+
+    public static Card valueOf(String cardString) {
+        if (cardString.length() != 2) {
             throw new RuntimeException("Invalid card encountered: " + cardString);
         }
+        return valueOf(cardString, 0);
+    }
+
+    // parses the two characters at the given offset without creating a substring, unless they are invalid
+    public static Card valueOf(String string, int offset) {
+        int index = indexOf(string.charAt(offset), string.charAt(offset + 1));
+        if (index < 0) {
+            throw new RuntimeException("Invalid card encountered: " + string.substring(offset, offset + 2));
+        }
+        return CARDS[index];
+    }
+
+    // index of the card with the given rank and suit characters, or -1 if either is invalid
+    static int indexOf(int rankChar, int suitChar) {
+        if (rankChar >= RANK_ORDINALS_BY_CHAR.length || suitChar >= SUIT_ORDINALS_BY_CHAR.length || rankChar < 0
+                || suitChar < 0) {
+            return -1;
+        }
+        int rankOrdinal = RANK_ORDINALS_BY_CHAR[rankChar];
+        int suitOrdinal = SUIT_ORDINALS_BY_CHAR[suitChar];
+        return rankOrdinal < 0 || suitOrdinal < 0 ? -1 : rankOrdinal << 2 | suitOrdinal;
+    }
+
+    // ordinal of the rank with the given character, or -1 if it is invalid
+    static int rankOrdinalOf(int rankChar) {
+        return rankChar < 0 || rankChar >= RANK_ORDINALS_BY_CHAR.length ? -1 : RANK_ORDINALS_BY_CHAR[rankChar];
     }
 
     public Suit getSuit() {
@@ -26,9 +86,18 @@ public class Card implements Comparable<Card> {
         return rank;
     }
 
+    public int getIndex() { // 0..51, rank ordinal in the upper bits, suit ordinal in the lowest two
+        return index;
+    }
+
+    // 0..51, the position of the card string among all card strings in alphabetical order
+    public int getAlphabeticalOrder() {
+        return ALPHABETICAL_ORDERS[index];
+    }
+
     @Override
     public String toString() {
-        return rank.toString() + suit.toString();
+        return stringValue;
     }
 
     @Override
@@ -0,0 +1,130 @@
+package holdem;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Bounded LRU cache of the hand strengths of deals, in hand order. Deals that differ only by a permutation of suits
+// (or by the order of cards within the board or a hand) share an entry, as strengths don't depend on suit names.
+// The hands of a cached deal are still sorted by their own cards, so equally strong hands keep their order.
+// Not thread safe, each App has its own cache.
+public final class DealCache {
+    private static final int NUMBER_OF_SUITS = 4;
+
+    private final Map<String, int[]> strengths;
+    private final int[] suitMapping = new int[NUMBER_OF_SUITS];
+    private final StringBuilder keyBuilder = new StringBuilder();
+    private final int[] handCards = new int[GameType.OMAHA.getNumberOfHoleCards()];
+    private int nextSuit;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public DealCache(int maximumSize) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("Invalid cache size: " + maximumSize);
+        }
+        this.strengths = new LinkedHashMap<String, int[]>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, int[]> eldest) {
+                if (size() > maximumSize) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    // evaluates the hands of a deal, unless the strengths of an isomorphic deal are cached
+    public void evaluate(Card[] boardCards, List<Hand> hands) {
+        String key = getKey(boardCards, hands);
+        int[] handStrengths = strengths.get(key);
+        if (handStrengths != null) {
+            hits++;
+            for (int i = 0; i < handStrengths.length; i++) {
+                hands.get(i).setStrength(handStrengths[i]);
+            }
+            return;
+        }
+        misses++;
+        handStrengths = new int[hands.size()];
+        for (int i = 0; i < handStrengths.length; i++) {
+            hands.get(i).evaluateHand();
+            handStrengths[i] = hands.get(i).getStrength();
+        }
+        strengths.put(key, handStrengths);
+    }
+
+    // suits are renamed in order of first appearance, going through the board (sorted by rank) and then the hands;
+    // each card becomes one char of rank and renamed suit, with the cards of each hand sorted
+    private String getKey(Card[] boardCards, List<Hand> hands) {
+        Arrays.fill(suitMapping, -1);
+        nextSuit = 0;
+        keyBuilder.setLength(0);
+        for (Card card : boardCards) {
+            keyBuilder.append((char) getCanonicalIndex(card));
+        }
+        for (Hand hand : hands) {
+            Card[] cards = hand.getHandCards();
+            for (int i = 0; i < cards.length; i++) {
+                handCards[i] = getCanonicalIndex(cards[i]);
+            }
+            sort(handCards, cards.length);
+            for (int i = 0; i < cards.length; i++) {
+                keyBuilder.append((char) handCards[i]);
+            }
+        }
+        return keyBuilder.toString();
+    }
+
+    private int getCanonicalIndex(Card card) {
+        int suit = card.getSuit().ordinal();
+        if (suitMapping[suit] < 0) {
+            suitMapping[suit] = nextSuit++;
+        }
+        return card.getRank().ordinal() << 2 | suitMapping[suit];
+    }
+
+    private static void sort(int[] values, int length) { // insertion sort of a few values
+        for (int i = 1; i < length; i++) {
+            int value = values[i];
+            int j = i - 1;
+            while (j >= 0 && values[j] > value) {
+                values[j + 1] = values[j];
+                j--;
+            }
+            values[j + 1] = value;
+        }
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public int size() {
+        return strengths.size();
+    }
+
+    // totals of the given caches, e.g. of all worker threads
+    public static String getStatistics(Collection<DealCache> caches) {
+        long totalHits = caches.stream().mapToLong(DealCache::getHits).sum();
+        long totalMisses = caches.stream().mapToLong(DealCache::getMisses).sum();
+        long totalEvictions = caches.stream().mapToLong(DealCache::getEvictions).sum();
+        long totalSize = caches.stream().mapToLong(DealCache::size).sum();
+        return "Deal cache: " + totalHits + " hits, " + totalMisses + " misses, " + totalEvictions + " evictions, "
+                + totalSize + " entries";
+    }
+}
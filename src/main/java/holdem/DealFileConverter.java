@@ -0,0 +1,114 @@
+package holdem;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+
+// Converts deal files between the text format and the binary deal format of BinaryDealWriter. Text lines that are
+// not valid deals are kept as they are, so processing either file gives the same output.
+// Usage: java -cp texas-holdem-1.0-SNAPSHOT.jar holdem.DealFileConverter <--to-binary|--to-text> <input file>
+// <output file> [--omaha]
+public final class DealFileConverter {
+    private static final String TO_BINARY_PARAMETER = "--to-binary";
+    private static final String TO_TEXT_PARAMETER = "--to-text";
+    private static final String OMAHA_PARAMETER = "--omaha";
+    private static final int OUTPUT_BATCH_SIZE = 1 << 20;
+
+    private DealFileConverter() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        List<String> arguments = Arrays.asList(args);
+        boolean toBinary = arguments.contains(TO_BINARY_PARAMETER);
+        int parameterIndex = arguments.indexOf(toBinary ? TO_BINARY_PARAMETER : TO_TEXT_PARAMETER);
+        if (parameterIndex < 0 || parameterIndex + 2 >= arguments.size()) {
+            throw new IllegalArgumentException("Usage: " + TO_BINARY_PARAMETER + "|" + TO_TEXT_PARAMETER
+                    + " <input file> <output file> [" + OMAHA_PARAMETER + "]");
+        }
+        Path input = Paths.get(arguments.get(parameterIndex + 1));
+        Path output = Paths.get(arguments.get(parameterIndex + 2));
+        GameType gameType = arguments.contains(OMAHA_PARAMETER) ? GameType.OMAHA : GameType.HOLDEM;
+        try (FileChannel outputChannel = FileChannel.open(output, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            if (toBinary) {
+                convertToBinary(input, outputChannel, gameType);
+            } else {
+                convertToText(input, outputChannel, gameType);
+            }
+        }
+        System.err.println("Converted " + Files.size(input) + " bytes to " + Files.size(output) + " bytes");
+    }
+
+    private static void convertToBinary(Path input, FileChannel output, GameType gameType) throws IOException {
+        DealParser parser = new DealParser(gameType);
+        BinaryDealWriter writer = new BinaryDealWriter(output, gameType);
+        try {
+            DealLineReader.read(input, (ByteBuffer buffer, int start, int end) -> {
+                try {
+                    if (parser.parse(buffer, start, end) == DealParser.OK) {
+                        writer.writeDeal(parser.getBoardCards(), parser.getHandCards(), parser.getNumberOfHands());
+                    } else {
+                        byte[] line = new byte[end - start];
+                        for (int i = 0; i < line.length; i++) {
+                            line[i] = buffer.get(start + i);
+                        }
+                        writer.writeInvalidLine(line);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.close();
+    }
+
+    // valid deals are written as the board and the hands separated by single spaces
+    private static void convertToText(Path input, FileChannel output, GameType gameType) throws IOException {
+        OutputBuffer text = new OutputBuffer(OUTPUT_BATCH_SIZE);
+        int numberOfHoleCards = gameType.getNumberOfHoleCards();
+        try {
+            BinaryDealReader.read(input, gameType, block -> {
+                while (block.next()) {
+                    if (block.isInvalidLine()) {
+                        text.putString(block.getInvalidLine());
+                    } else {
+                        for (int card : block.getBoardCards()) {
+                            text.putAscii(Card.valueOf(card).toString());
+                        }
+                        int[] handCards = block.getHandCards();
+                        for (int i = 0; i < numberOfHoleCards * block.getNumberOfHands(); i++) {
+                            if (i % numberOfHoleCards == 0) {
+                                text.put((byte) ' ');
+                            }
+                            text.putAscii(Card.valueOf(handCards[i]).toString());
+                        }
+                    }
+                    text.putLineSeparator();
+                }
+                if (text.size() >= OUTPUT_BATCH_SIZE) {
+                    writeText(text, output);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writeText(text, output);
+    }
+
+    private static void writeText(OutputBuffer text, FileChannel output) {
+        try {
+            text.writeTo(output);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
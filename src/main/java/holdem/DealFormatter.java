@@ -0,0 +1,9 @@
+package holdem;
+
+// Formats the result of each input line (deal index counted from 0, including lines with errors) into an output
+// buffer, which is written out in large batches.
+public interface DealFormatter {
+    void formatDeal(OutputBuffer output, long dealIndex, SortedDeal sortedDeal);
+
+    void formatError(OutputBuffer output, long dealIndex, String message, String line);
+}
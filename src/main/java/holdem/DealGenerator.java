@@ -0,0 +1,235 @@
+package holdem;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Writes files of seeded random Hold'em deals for load tests and benchmarks. The number of hands of each deal
+// follows a distribution of players, and a deal is skewed towards a hand ranking with the probability given for it
+// by drawing it again until one of its hands has that ranking. All cards of a deal are different. Deals are
+// generated in blocks, each with its own random seeded from the seed and its number, by a pool of threads and
+// written in order through a FileChannel, so the file only depends on the arguments, not on the number of threads.
+// Usage: java -cp texas-holdem-1.0-SNAPSHOT.jar holdem.DealGenerator --output <file> --deals <n> [--seed <n>]
+// [--players <distribution>] [--rankings <probabilities>] [--threads <n>]
+public final class DealGenerator {
+    private static final String OUTPUT_FILE_PARAMETER = "--output";
+    private static final String DEALS_PARAMETER = "--deals";
+    private static final String SEED_PARAMETER = "--seed";
+    private static final String PLAYERS_PARAMETER = "--players";
+    private static final String RANKINGS_PARAMETER = "--rankings";
+    private static final String THREADS_PARAMETER = "--threads";
+    private static final String DEFAULT_PLAYERS = "2-9";
+    private static final int MAX_PLAYERS = (Card.NUMBER_OF_CARDS - DealParser.NUMBER_OF_BOARD_CARDS) / 2;
+    private static final int DEALS_PER_BLOCK = 16384;
+    private static final int BLOCKS_IN_FLIGHT_PER_THREAD = 4;
+    private static final int BLOCK_BUFFER_SIZE = 1 << 20;
+    private static final long BLOCK_SEED_INCREMENT = 0xD1B54A32D192ED03L;
+    private static final HandRanking[] HAND_RANKINGS = HandRanking.values();
+
+    private final long seed;
+    private final double[] playerCumulativeWeights = new double[MAX_PLAYERS + 1]; // by number of players
+    private final double[] rankingCumulativeProbabilities = new double[HAND_RANKINGS.length];
+
+    // players like "2-9" (the default, all equally likely) or weights like "2:1,6-9:2" (each of 6 to 9 players twice
+    // as likely as 2), rankings like "flush:0.1,straight_flush:0.01" (the other deals are left to chance)
+    public DealGenerator(long seed, String players, String rankings) {
+        this.seed = seed;
+        parsePlayers(players);
+        parseRankings(rankings);
+    }
+
+    private void parsePlayers(String players) {
+        double[] weights = new double[MAX_PLAYERS + 1];
+        for (String term : players.replaceAll("\\s", "").split(",")) {
+            String[] rangeAndWeight = term.split(":", 2);
+            String[] range = rangeAndWeight[0].split("-", 2);
+            try {
+                int from = Integer.parseInt(range[0]);
+                int to = range.length > 1 ? Integer.parseInt(range[1]) : from;
+                double weight = rangeAndWeight.length > 1 ? Double.parseDouble(rangeAndWeight[1]) : 1;
+                if (from < 1 || to > MAX_PLAYERS || from > to || !(weight >= 0)) {
+                    throw new IllegalArgumentException("Invalid players: " + term);
+                }
+                for (int numberOfPlayers = from; numberOfPlayers <= to; numberOfPlayers++) {
+                    weights[numberOfPlayers] += weight;
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid players: " + term);
+            }
+        }
+        double total = 0;
+        for (int i = 0; i < weights.length; i++) {
+            total += weights[i];
+            playerCumulativeWeights[i] = total;
+        }
+        if (!(total > 0)) {
+            throw new IllegalArgumentException("Invalid players: " + players);
+        }
+    }
+
+    private void parseRankings(String rankings) {
+        double[] probabilities = new double[HAND_RANKINGS.length];
+        if (rankings != null) {
+            for (String term : rankings.replaceAll("\\s", "").split(",")) {
+                String[] rankingAndProbability = term.split(":", 2);
+                try {
+                    HandRanking ranking = HandRanking.valueOf(rankingAndProbability[0].toUpperCase(Locale.ROOT));
+                    double probability = Double.parseDouble(rankingAndProbability[1]);
+                    if (!(probability >= 0)) {
+                        throw new IllegalArgumentException("Invalid ranking probability: " + term);
+                    }
+                    probabilities[ranking.ordinal()] += probability;
+                } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+                    throw new IllegalArgumentException("Invalid ranking probability: " + term);
+                }
+            }
+        }
+        double total = 0;
+        for (int i = 0; i < probabilities.length; i++) {
+            total += probabilities[i];
+            rankingCumulativeProbabilities[i] = total;
+        }
+        if (total > 1) {
+            throw new IllegalArgumentException("Ranking probabilities add up to more than 1: " + rankings);
+        }
+    }
+
+    public void write(Path file, long numberOfDeals, int numberOfThreads) throws IOException {
+        if (numberOfDeals < 0 || numberOfThreads < 1) {
+            throw new IllegalArgumentException("Invalid number of deals or threads");
+        }
+        long numberOfBlocks = (numberOfDeals + DEALS_PER_BLOCK - 1) / DEALS_PER_BLOCK;
+        ExecutorService workers = Executors.newFixedThreadPool(numberOfThreads);
+        Queue<Future<ByteBuffer>> blocksInFlight = new ArrayDeque<>();
+        try (FileChannel output = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            long nextBlock = 0;
+            while (nextBlock < numberOfBlocks || !blocksInFlight.isEmpty()) {
+                while (nextBlock < numberOfBlocks && blocksInFlight.size() < BLOCKS_IN_FLIGHT_PER_THREAD
+                        * numberOfThreads) {
+                    long block = nextBlock++;
+                    int deals = (int) Math.min(DEALS_PER_BLOCK, numberOfDeals - block * DEALS_PER_BLOCK);
+                    blocksInFlight.add(workers.submit(() -> generateBlock(block, deals)));
+                }
+                OutputBuffer.write(output, blocksInFlight.remove().get());
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    // deals as text lines of the board and the hands separated by single spaces, ending with '\n' on any platform
+    private ByteBuffer generateBlock(long block, int numberOfDeals) {
+        SplittableRandom random = new SplittableRandom(seed + block * BLOCK_SEED_INCREMENT);
+        HandStrengthEvaluator evaluator = LookupTableEvaluator.getInstance();
+        int[] deck = new int[Card.NUMBER_OF_CARDS];
+        for (int i = 0; i < deck.length; i++) {
+            deck[i] = i;
+        }
+        int[] boardCards = new int[DealParser.NUMBER_OF_BOARD_CARDS];
+        BoardContext board = new BoardContext(boardCards);
+        OutputBuffer deals = new OutputBuffer(BLOCK_BUFFER_SIZE);
+        for (int deal = 0; deal < numberOfDeals; deal++) {
+            int numberOfPlayers = draw(playerCumulativeWeights, playerCumulativeWeights[MAX_PLAYERS], random);
+            int skewRanking = draw(rankingCumulativeProbabilities, 1, random);
+            int numberOfCards = DealParser.NUMBER_OF_BOARD_CARDS + 2 * numberOfPlayers;
+            do {
+                shuffle(deck, numberOfCards, random);
+                System.arraycopy(deck, 0, boardCards, 0, boardCards.length);
+                board.reset(boardCards);
+            } while (skewRanking < HAND_RANKINGS.length && !hasRanking(evaluator, board, deck, numberOfPlayers,
+                    skewRanking));
+            for (int i = 0; i < numberOfCards; i++) {
+                if (i >= DealParser.NUMBER_OF_BOARD_CARDS && (i - DealParser.NUMBER_OF_BOARD_CARDS) % 2 == 0) {
+                    deals.put((byte) ' ');
+                }
+                deals.putAscii(Card.valueOf(deck[i]).toString());
+            }
+            deals.put((byte) '\n');
+        }
+        return ByteBuffer.wrap(deals.toByteArray());
+    }
+
+    // the index of the first cumulative value above a random value below the total, or the length of the values when
+    // they stay below it (for rankings, when no ranking is drawn)
+    private static int draw(double[] cumulativeValues, double total, SplittableRandom random) {
+        double value = random.nextDouble() * total;
+        int index = 0;
+        while (index < cumulativeValues.length && cumulativeValues[index] <= value) {
+            index++;
+        }
+        return index;
+    }
+
+    // the first cards of the deck become a random choice in random order, by a partial Fisher-Yates shuffle
+    private static void shuffle(int[] deck, int numberOfCards, SplittableRandom random) {
+        for (int i = 0; i < numberOfCards; i++) {
+            int chosen = i + random.nextInt(deck.length - i);
+            int card = deck[chosen];
+            deck[chosen] = deck[i];
+            deck[i] = card;
+        }
+    }
+
+    private static boolean hasRanking(HandStrengthEvaluator evaluator, BoardContext board, int[] deck,
+            int numberOfPlayers, int ranking) {
+        for (int hand = 0; hand < numberOfPlayers; hand++) {
+            int card = DealParser.NUMBER_OF_BOARD_CARDS + 2 * hand;
+            if (evaluator.evaluate(board, deck[card], deck[card + 1]) >>> HandStrength.RANKING_SHIFT == ranking) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static void main(String[] args) throws IOException {
+        List<String> arguments = Arrays.asList(args);
+        String outputFile = getParameterValue(arguments, OUTPUT_FILE_PARAMETER, null);
+        String deals = getParameterValue(arguments, DEALS_PARAMETER, null);
+        if (outputFile == null || deals == null) {
+            throw new IllegalArgumentException("Usage: " + OUTPUT_FILE_PARAMETER + " <file> " + DEALS_PARAMETER
+                    + " <n> [" + SEED_PARAMETER + " <n>] [" + PLAYERS_PARAMETER + " <distribution>] ["
+                    + RANKINGS_PARAMETER + " <probabilities>] [" + THREADS_PARAMETER + " <n>]");
+        }
+        DealGenerator generator = new DealGenerator(
+                Long.parseLong(getParameterValue(arguments, SEED_PARAMETER, "0")),
+                getParameterValue(arguments, PLAYERS_PARAMETER, DEFAULT_PLAYERS),
+                getParameterValue(arguments, RANKINGS_PARAMETER, null));
+        long numberOfDeals = Long.parseLong(deals);
+        long start = System.nanoTime();
+        generator.write(Paths.get(outputFile), numberOfDeals, Integer.parseInt(getParameterValue(arguments,
+                THREADS_PARAMETER, String.valueOf(Runtime.getRuntime().availableProcessors()))));
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.err.println(String.format(Locale.ROOT, "Generated %d deals in %.3f s, %.0f deals/s", numberOfDeals,
+                seconds, numberOfDeals / seconds));
+    }
+
+    private static String getParameterValue(List<String> arguments, String parameter, String defaultValue) {
+        int parameterIndex = arguments.indexOf(parameter);
+        if (parameterIndex < 0) {
+            return defaultValue;
+        }
+        if (parameterIndex + 1 >= arguments.size()) {
+            throw new IllegalArgumentException("Missing value for " + parameter);
+        }
+        return arguments.get(parameterIndex + 1);
+    }
+}
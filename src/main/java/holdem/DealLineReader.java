@@ -0,0 +1,85 @@
+package holdem;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+
+// Splits byte input into lines (terminated like in BufferedReader.readLine) without decoding it, either from a
+// channel through a reusable buffer or from a file mapped into memory window by window.
+public final class DealLineReader {
+    private static final int CHANNEL_BUFFER_SIZE = 1 << 16;
+    private static final long MAPPED_WINDOW_SIZE = 1L << 28;
+
+    @FunctionalInterface
+    public interface LineHandler {
+        // the line is between start (inclusive) and end (exclusive), without its terminator
+        void handleLine(ByteBuffer input, int start, int end);
+    }
+
+    private DealLineReader() {
+    }
+
+    public static void read(ReadableByteChannel channel, LineHandler handler) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(CHANNEL_BUFFER_SIZE);
+        int filled = 0;
+        boolean endOfInput = false;
+        while (!endOfInput) {
+            if (filled == buffer.capacity()) { // a line longer than the buffer
+                ByteBuffer largerBuffer = ByteBuffer.allocate(2 * buffer.capacity());
+                largerBuffer.put(buffer.array(), 0, filled);
+                buffer = largerBuffer;
+            }
+            int bytesRead = channel.read(buffer);
+            endOfInput = bytesRead < 0;
+            filled += Math.max(bytesRead, 0);
+            int consumed = handleLines(buffer, filled, endOfInput, handler);
+            System.arraycopy(buffer.array(), consumed, buffer.array(), 0, filled - consumed);
+            filled -= consumed;
+            ((Buffer) buffer).position(filled); // Buffer, as ByteBuffer.position(int) does not exist on Java 8
+        }
+    }
+
+    public static void read(Path file, LineHandler handler) throws IOException {
+        try (FileChannel channel = FileChannel.open(file)) {
+            long size = channel.size();
+            long windowStart = 0;
+            while (windowStart < size) {
+                long windowSize = Math.min(MAPPED_WINDOW_SIZE, size - windowStart);
+                boolean endOfInput = windowStart + windowSize == size;
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, windowSize);
+                int consumed = handleLines(window, (int) windowSize, endOfInput, handler);
+                if (consumed == 0 && !endOfInput) {
+                    throw new IOException("Line longer than " + MAPPED_WINDOW_SIZE + " bytes at offset " + windowStart);
+                }
+                windowStart += endOfInput ? windowSize : consumed;
+            }
+        }
+    }
+
+    // handles all complete lines (or everything at the end of input) and returns the number of bytes consumed
+    static int handleLines(ByteBuffer input, int limit, boolean endOfInput, LineHandler handler) {
+        int lineStart = 0;
+        for (int position = 0; position < limit; position++) {
+            byte b = input.get(position);
+            if (b == '\n' || b == '\r') {
+                if (b == '\r' && position + 1 == limit && !endOfInput) {
+                    break; // the next byte may be the '\n' of this terminator
+                }
+                handler.handleLine(input, lineStart, position);
+                if (b == '\r' && position + 1 < limit && input.get(position + 1) == '\n') {
+                    position++;
+                }
+                lineStart = position + 1;
+            }
+        }
+        if (endOfInput && lineStart < limit) {
+            handler.handleLine(input, lineStart, limit);
+            return limit;
+        }
+        return lineStart;
+    }
+}
@@ -0,0 +1,97 @@
+package holdem;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Records stage latencies, deal and error counts of one App (and so one thread). Allocated bytes of the thread are
+// sampled every few thousand deals and at the end of input chunks, rather than read around every deal.
+public final class DealMetrics {
+    private static final int ALLOCATION_SAMPLE_INTERVAL = 4096;
+
+    public enum Stage {
+        PARSE("parse"), EVALUATE("evaluate"), SORT("sort"), PRINT("print"), WRITE("write");
+
+        private String stringValue;
+
+        Stage(String stringValue) {
+            this.stringValue = stringValue;
+        }
+
+        @Override
+        public String toString() {
+            return stringValue;
+        }
+    }
+
+    private final LatencyHistogram[] histograms = new LatencyHistogram[Stage.values().length];
+    private final Map<String, Long> errorCounts = new ConcurrentHashMap<>();
+    private final long threadId = Thread.currentThread().getId();
+    private final long allocatedBytesAtStart = getAllocatedBytes(threadId);
+    private volatile long deals;
+    private volatile long allocatedBytes;
+    private volatile long dealsAtAllocationSample;
+
+    DealMetrics() {
+        for (Stage stage : Stage.values()) {
+            histograms[stage.ordinal()] = new LatencyHistogram();
+        }
+    }
+
+    // allocated bytes of the thread so far, or -1 if the JVM can't tell
+    static long getAllocatedBytes(long threadId) {
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        if (threadBean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) threadBean).getThreadAllocatedBytes(threadId);
+        }
+        return -1;
+    }
+
+    void record(Stage stage, long nanos) {
+        histograms[stage.ordinal()].record(nanos);
+    }
+
+    void countDeal() {
+        long count = deals + 1; // only written by the recording thread
+        deals = count;
+        if (count % ALLOCATION_SAMPLE_INTERVAL == 0) {
+            sampleAllocatedBytes();
+        }
+    }
+
+    // errors are counted by the part of the message before ':', e.g. "Invalid card encountered"
+    void countError(String message) {
+        String cause = message == null ? "Unknown error" : message.split(":", 2)[0];
+        errorCounts.merge(cause, 1L, Long::sum);
+    }
+
+    // called by the recording thread
+    void sampleAllocatedBytes() {
+        long currentBytes = getAllocatedBytes(threadId);
+        if (currentBytes >= 0 && allocatedBytesAtStart >= 0) {
+            dealsAtAllocationSample = deals;
+            allocatedBytes = currentBytes - allocatedBytesAtStart;
+        }
+    }
+
+    LatencyHistogram getHistogram(Stage stage) {
+        return histograms[stage.ordinal()];
+    }
+
+    Map<String, Long> getErrorCounts() {
+        return errorCounts;
+    }
+
+    long getDeals() {
+        return deals;
+    }
+
+    long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    long getDealsAtAllocationSample() {
+        return dealsAtAllocationSample;
+    }
+}
@@ -0,0 +1,206 @@
+package holdem;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+// Parses deal lines directly from ASCII bytes into card indices, reporting malformed lines with error codes
+// instead of exceptions. The parsed cards are valid until the next call to parse. With contributions each player
+// is given as <hand>:<chips put in the pot>, or -:<chips> for a player who folded and has no hand.
+public final class DealParser {
+    public static final int OK = 0;
+    public static final int INVALID_BOARD = 1;
+    public static final int INVALID_HAND = 2;
+    public static final int INVALID_CARD = 3;
+    public static final int DUPLICATE_CARD = 4;
+    public static final int INVALID_CONTRIBUTION = 5;
+    public static final int FOLDED = -1;
+    private static final int MAX_CONTRIBUTION_DIGITS = 15;
+    public static final int NUMBER_OF_BOARD_CARDS = 5;
+    private static final int NUMBER_OF_BYTES_IN_BOARD = 2 * NUMBER_OF_BOARD_CARDS;
+
+    private final int numberOfHoleCards;
+    private final boolean contributions;
+    private final int[] boardCards = new int[NUMBER_OF_BOARD_CARDS];
+    private int[] handCards = new int[64];
+    private int numberOfHands;
+    private long[] playerContributions = new long[16];
+    private int[] playerHands = new int[16]; // index of the hand of each player, or FOLDED
+    private int numberOfPlayers;
+    private int errorStart;
+    private int errorEnd;
+
+    public DealParser(GameType gameType) {
+        this(gameType, false);
+    }
+
+    public DealParser(GameType gameType, boolean contributions) {
+        this.numberOfHoleCards = gameType.getNumberOfHoleCards();
+        this.contributions = contributions;
+    }
+
+    // parses the line between start (inclusive) and end (exclusive, without line terminator)
+    public int parse(ByteBuffer input, int start, int end) {
+        numberOfHands = 0;
+        numberOfPlayers = 0;
+        long boardCardMask = 0;
+        if (end - start < NUMBER_OF_BYTES_IN_BOARD) {
+            return error(start, end, INVALID_BOARD);
+        }
+        for (int i = 0; i < NUMBER_OF_BOARD_CARDS; i++) {
+            int cardStart = start + 2 * i;
+            boardCards[i] = parseCard(input, cardStart);
+            if (boardCards[i] < 0) {
+                return error(cardStart, cardStart + 2, INVALID_CARD);
+            }
+            if ((boardCardMask & 1L << boardCards[i]) != 0) {
+                return error(cardStart, cardStart + 2, DUPLICATE_CARD);
+            }
+            boardCardMask |= 1L << boardCards[i];
+        }
+
+        int position = start + NUMBER_OF_BYTES_IN_BOARD;
+        while (true) {
+            while (position < end && isWhitespace(input.get(position))) {
+                position++;
+            }
+            if (position == end) {
+                return OK;
+            }
+            int handStart = position;
+            while (position < end && !isWhitespace(input.get(position))) {
+                position++;
+            }
+            int result = contributions ? parsePlayer(input, handStart, position, boardCardMask)
+                    : parseHand(input, handStart, position, boardCardMask);
+            if (result != OK) {
+                return result;
+            }
+        }
+    }
+
+    private int parseHand(ByteBuffer input, int handStart, int handEnd, long boardCardMask) {
+        if (handEnd - handStart != 2 * numberOfHoleCards) {
+            return error(handStart, handEnd, INVALID_HAND);
+        }
+        int handOffset = numberOfHoleCards * numberOfHands;
+        if (handOffset + numberOfHoleCards > handCards.length) {
+            handCards = Arrays.copyOf(handCards, 2 * handCards.length);
+        }
+        long usedCards = boardCardMask; // hands may share cards, but not with the board or within the hand
+        for (int i = 0; i < numberOfHoleCards; i++) {
+            int cardStart = handStart + 2 * i;
+            int card = parseCard(input, cardStart);
+            if (card < 0) {
+                return error(cardStart, cardStart + 2, INVALID_CARD);
+            }
+            if ((usedCards & 1L << card) != 0) {
+                return error(cardStart, cardStart + 2, DUPLICATE_CARD);
+            }
+            usedCards |= 1L << card;
+            handCards[handOffset + i] = card;
+        }
+        numberOfHands++;
+        return OK;
+    }
+
+    // a hand or '-' followed by ':' and the decimal number of chips
+    private int parsePlayer(ByteBuffer input, int playerStart, int playerEnd, long boardCardMask) {
+        int separator = playerStart;
+        while (separator < playerEnd && input.get(separator) != ':') {
+            separator++;
+        }
+        int digits = playerEnd - separator - 1;
+        if (digits < 1 || digits > MAX_CONTRIBUTION_DIGITS) {
+            return error(playerStart, playerEnd, INVALID_CONTRIBUTION);
+        }
+        long chips = 0;
+        for (int i = separator + 1; i < playerEnd; i++) {
+            int digit = input.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return error(playerStart, playerEnd, INVALID_CONTRIBUTION);
+            }
+            chips = 10 * chips + digit;
+        }
+        if (numberOfPlayers == playerHands.length) {
+            playerHands = Arrays.copyOf(playerHands, 2 * playerHands.length);
+            playerContributions = Arrays.copyOf(playerContributions, 2 * playerContributions.length);
+        }
+        if (separator - playerStart == 1 && input.get(playerStart) == '-') {
+            playerHands[numberOfPlayers] = FOLDED;
+        } else {
+            int result = parseHand(input, playerStart, separator, boardCardMask);
+            if (result != OK) {
+                return result;
+            }
+            playerHands[numberOfPlayers] = numberOfHands - 1;
+        }
+        playerContributions[numberOfPlayers++] = chips;
+        return OK;
+    }
+
+    private static int parseCard(ByteBuffer input, int cardStart) {
+        return Card.indexOf(input.get(cardStart) & 0xFF, input.get(cardStart + 1) & 0xFF);
+    }
+
+    // same characters as the default delimiter of java.util.Scanner within the ASCII range
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b >= '\t' && b <= '\r' || b >= 0x1C && b <= 0x1F;
+    }
+
+    private int error(int start, int end, int errorCode) {
+        errorStart = start;
+        errorEnd = end;
+        return errorCode;
+    }
+
+    public int[] getBoardCards() {
+        return boardCards;
+    }
+
+    // card indices of the hands, GameType.getNumberOfHoleCards() per hand
+    public int[] getHandCards() {
+        return handCards;
+    }
+
+    public int getNumberOfHands() {
+        return numberOfHands;
+    }
+
+    // with contributions, the players in line order
+    public int getNumberOfPlayers() {
+        return numberOfPlayers;
+    }
+
+    public long[] getPlayerContributions() {
+        return playerContributions;
+    }
+
+    public int[] getPlayerHands() {
+        return playerHands;
+    }
+
+    public String getErrorMessage(ByteBuffer input, int errorCode) {
+        String errorString = decode(input, errorStart, errorEnd);
+        switch (errorCode) {
+            case INVALID_BOARD:
+                return "Invalid board string encountered: " + errorString;
+            case INVALID_HAND:
+                return "Invalid hand string encountered: " + errorString;
+            case DUPLICATE_CARD:
+                return "Duplicate card encountered: " + errorString;
+            case INVALID_CONTRIBUTION:
+                return "Invalid contribution encountered: " + errorString;
+            default: // INVALID_CARD
+                return "Invalid card encountered: " + errorString;
+        }
+    }
+
+    public static String decode(ByteBuffer input, int start, int end) {
+        byte[] bytes = new byte[end - start];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = input.get(start + i);
+        }
+        return new String(bytes, Charset.defaultCharset());
+    }
+}
@@ -0,0 +1,186 @@
+package holdem;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+// Serves the line protocol of the standard input over TCP on the loopback interface with non-blocking NIO on one
+// thread, so the App and its evaluator stay warmed up between jobs. Each selector round first reads from all
+// ready connections and then evaluates the complete lines of all of them as one batch, appending each deal's
+// output to the response queue of its connection. Deals are numbered per connection. A connection is closed
+// once its input has ended and all responses are written; reading from it pauses while too much output is queued.
+public final class DealServer {
+    private static final int READ_BUFFER_SIZE = 1 << 16;
+    private static final int MAX_QUEUED_OUTPUT = 1 << 22;
+
+    private final App app;
+    private final Selector selector;
+    private final ServerSocketChannel serverChannel;
+    private final List<Connection> connectionsWithInput = new ArrayList<>();
+
+    public DealServer(App app, int port) throws IOException {
+        this.app = app;
+        this.selector = Selector.open();
+        this.serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+    }
+
+    public int getPort() throws IOException {
+        return ((InetSocketAddress) serverChannel.getLocalAddress()).getPort();
+    }
+
+    // serves until the thread is interrupted
+    public void serve() throws IOException {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                selector.select();
+                Iterator<SelectionKey> selectedKeys = selector.selectedKeys().iterator();
+                while (selectedKeys.hasNext()) {
+                    SelectionKey key = selectedKeys.next();
+                    selectedKeys.remove();
+                    if (key.isValid() && key.isAcceptable()) {
+                        accept();
+                    } else if (key.isValid()) {
+                        handleConnection((Connection) key.attachment(), key);
+                    }
+                }
+                evaluateRound();
+            }
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                key.channel().close();
+            }
+            selector.close();
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = serverChannel.accept();
+        if (channel != null) {
+            channel.configureBlocking(false);
+            channel.socket().setTcpNoDelay(true);
+            SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+            key.attach(new Connection(channel, key));
+        }
+    }
+
+    private void handleConnection(Connection connection, SelectionKey key) {
+        try {
+            if (key.isReadable()) {
+                connection.read();
+                if (!connection.inRound) {
+                    connection.inRound = true;
+                    connectionsWithInput.add(connection);
+                }
+            }
+            if (key.isValid() && key.isWritable()) {
+                connection.write();
+            }
+        } catch (IOException e) { // the client went away, its other connections are not affected
+            connection.close();
+        }
+    }
+
+    private void evaluateRound() {
+        for (Connection connection : connectionsWithInput) {
+            connection.inRound = false;
+            if (!connection.key.isValid()) {
+                continue;
+            }
+            byte[] output = app.processConnectionInput(connection);
+            if (output.length > 0) {
+                connection.queuedOutput.add(ByteBuffer.wrap(output));
+                connection.queuedBytes += output.length;
+            }
+            try {
+                connection.write();
+            } catch (IOException e) {
+                connection.close();
+            }
+        }
+        connectionsWithInput.clear();
+    }
+
+    static final class Connection {
+        private final SocketChannel channel;
+        private final SelectionKey key;
+        private final ArrayDeque<ByteBuffer> queuedOutput = new ArrayDeque<>();
+        private ByteBuffer input = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        private boolean endOfInput;
+        private boolean inRound;
+        private long queuedBytes;
+        private long nextDealIndex;
+
+        private Connection(SocketChannel channel, SelectionKey key) {
+            this.channel = channel;
+            this.key = key;
+        }
+
+        private void read() throws IOException {
+            if (!input.hasRemaining()) { // a line longer than the buffer
+                ByteBuffer largerBuffer = ByteBuffer.allocate(2 * input.capacity());
+                largerBuffer.put(input.array(), 0, input.position());
+                input = largerBuffer;
+            }
+            endOfInput = channel.read(input) < 0;
+            if (endOfInput) {
+                key.interestOps(key.interestOps() & ~SelectionKey.OP_READ);
+            }
+        }
+
+        long getNextDealIndex() {
+            return nextDealIndex;
+        }
+
+        // handles the complete lines read so far (or everything at the end of input)
+        void processLines(DealLineReader.LineHandler handler) {
+            int filled = input.position();
+            int consumed = DealLineReader.handleLines(input, filled, endOfInput, (buffer, start, end) -> {
+                handler.handleLine(buffer, start, end);
+                nextDealIndex++;
+            });
+            System.arraycopy(input.array(), consumed, input.array(), 0, filled - consumed);
+            ((Buffer) input).position(filled - consumed); // Buffer, as ByteBuffer.position(int) is Java 9+
+        }
+
+        private void write() throws IOException {
+            if (!queuedOutput.isEmpty()) {
+                ByteBuffer[] buffers = queuedOutput.toArray(new ByteBuffer[0]);
+                queuedBytes -= channel.write(buffers);
+                while (!queuedOutput.isEmpty() && !queuedOutput.peek().hasRemaining()) {
+                    queuedOutput.poll();
+                }
+            }
+            if (queuedOutput.isEmpty() && endOfInput) {
+                close();
+                return;
+            }
+            int interestOps = queuedOutput.isEmpty() ? 0 : SelectionKey.OP_WRITE;
+            if (!endOfInput && queuedBytes < MAX_QUEUED_OUTPUT) {
+                interestOps |= SelectionKey.OP_READ;
+            }
+            key.interestOps(interestOps);
+        }
+
+        private void close() {
+            key.cancel();
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // nothing more can be done for this connection
+            }
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package holdem;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Aggregates of evaluated deals for --analyze: hands, wins and ties by hand ranking and (for Hold'em) by starting
+// hand class, deals by number of players and skipped lines by cause. A hand wins when it is the only strongest hand
+// of its deal and ties when it shares the best strength. Counters are plain arrays, so each thread has its own
+// instance, merged at the end.
+public final class DealStatistics {
+    private static final HandRanking[] HAND_RANKINGS = HandRanking.values();
+
+    private final boolean startingHands;
+    private final long[] rankingHands = new long[HAND_RANKINGS.length];
+    private final long[] rankingWins = new long[HAND_RANKINGS.length];
+    private final long[] rankingTies = new long[HAND_RANKINGS.length];
+    private final long[] classHands = new long[StartingHands.NUMBER_OF_CLASSES];
+    private final long[] classWins = new long[StartingHands.NUMBER_OF_CLASSES];
+    private final long[] classTies = new long[StartingHands.NUMBER_OF_CLASSES];
+    private long[] dealsByPlayers = new long[16];
+    private long deals;
+    private long hands;
+    private final Map<String, Long> skippedLines = new TreeMap<>();
+
+    public DealStatistics(GameType gameType) {
+        this.startingHands = gameType == GameType.HOLDEM;
+    }
+
+    // the hands must have been evaluated
+    void addDeal(List<Hand> deal) {
+        int numberOfHands = deal.size();
+        if (numberOfHands >= dealsByPlayers.length) {
+            long[] larger = new long[Math.max(2 * dealsByPlayers.length, numberOfHands + 1)];
+            System.arraycopy(dealsByPlayers, 0, larger, 0, dealsByPlayers.length);
+            dealsByPlayers = larger;
+        }
+        dealsByPlayers[numberOfHands]++;
+        deals++;
+        hands += numberOfHands;
+        int bestStrength = -1;
+        int numberOfBestHands = 0;
+        for (int i = 0; i < numberOfHands; i++) {
+            int strength = deal.get(i).getStrength();
+            if (strength > bestStrength) {
+                bestStrength = strength;
+                numberOfBestHands = 1;
+            } else if (strength == bestStrength) {
+                numberOfBestHands++;
+            }
+        }
+        for (int i = 0; i < numberOfHands; i++) {
+            Hand hand = deal.get(i);
+            int strength = hand.getStrength();
+            int ranking = strength >>> HandStrength.RANKING_SHIFT;
+            int classIndex = -1;
+            rankingHands[ranking]++;
+            if (startingHands) {
+                Card[] cards = hand.getHandCards();
+                classIndex = StartingHands.getClassIndex(cards[0].getIndex(), cards[1].getIndex());
+                classHands[classIndex]++;
+            }
+            if (strength == bestStrength) {
+                long[] rankingCounts = numberOfBestHands == 1 ? rankingWins : rankingTies;
+                rankingCounts[ranking]++;
+                if (classIndex >= 0) {
+                    long[] classCounts = numberOfBestHands == 1 ? classWins : classTies;
+                    classCounts[classIndex]++;
+                }
+            }
+        }
+    }
+
+    // counted by the part of the error message before ':', like in DealMetrics
+    void countSkippedLine(String message) {
+        String cause = message == null ? "Unknown error" : message.split(":", 2)[0];
+        skippedLines.merge(cause, 1L, Long::sum);
+    }
+
+    public static DealStatistics merge(Collection<DealStatistics> threadStatistics, GameType gameType) {
+        DealStatistics total = new DealStatistics(gameType);
+        for (DealStatistics statistics : threadStatistics) {
+            total.add(statistics);
+        }
+        return total;
+    }
+
+    private void add(DealStatistics other) {
+        addCounts(rankingHands, other.rankingHands);
+        addCounts(rankingWins, other.rankingWins);
+        addCounts(rankingTies, other.rankingTies);
+        addCounts(classHands, other.classHands);
+        addCounts(classWins, other.classWins);
+        addCounts(classTies, other.classTies);
+        if (other.dealsByPlayers.length > dealsByPlayers.length) {
+            long[] larger = new long[other.dealsByPlayers.length];
+            System.arraycopy(dealsByPlayers, 0, larger, 0, dealsByPlayers.length);
+            dealsByPlayers = larger;
+        }
+        addCounts(dealsByPlayers, other.dealsByPlayers);
+        deals += other.deals;
+        hands += other.hands;
+        other.skippedLines.forEach((cause, count) -> skippedLines.merge(cause, count, Long::sum));
+    }
+
+    private static void addCounts(long[] counts, long[] otherCounts) {
+        for (int i = 0; i < otherCounts.length; i++) {
+            counts[i] += otherCounts[i];
+        }
+    }
+
+    private static double getPercentage(long count, long total) {
+        return total == 0 ? 0 : 100.0 * count / total;
+    }
+
+    public void writeText(OutputBuffer output) {
+        long skipped = skippedLines.values().stream().mapToLong(Long::longValue).sum();
+        StringBuilder report = new StringBuilder();
+        report.append(String.format(Locale.ROOT, "Deals: %d, hands: %d, skipped lines: %d%n", deals, hands, skipped));
+        skippedLines.forEach((cause, count) -> report.append(String.format(Locale.ROOT, "  %s: %d%n", cause, count)));
+        report.append(String.format(Locale.ROOT, "%nPlayers     deals   share%n"));
+        for (int players = 0; players < dealsByPlayers.length; players++) {
+            if (dealsByPlayers[players] > 0) {
+                report.append(String.format(Locale.ROOT, "%7d %9d %6.2f%%%n", players, dealsByPlayers[players],
+                        getPercentage(dealsByPlayers[players], deals)));
+            }
+        }
+        report.append(String.format(Locale.ROOT, "%n%-15s %10s %7s %10s %8s %10s %8s%n", "Hand ranking", "hands",
+                "share", "wins", "win rate", "ties", "tie rate"));
+        for (HandRanking ranking : HAND_RANKINGS) {
+            int i = ranking.ordinal();
+            report.append(String.format(Locale.ROOT, "%-15s %10d %6.2f%% %10d %7.2f%% %10d %7.2f%%%n", ranking,
+                    rankingHands[i], getPercentage(rankingHands[i], hands), rankingWins[i],
+                    getPercentage(rankingWins[i], rankingHands[i]), rankingTies[i],
+                    getPercentage(rankingTies[i], rankingHands[i])));
+        }
+        if (startingHands) {
+            report.append(String.format(Locale.ROOT, "%n%-15s %10s %7s %10s %8s %10s %8s%n", "Starting hand",
+                    "hands", "share", "wins", "win rate", "ties", "tie rate"));
+            for (int i = 0; i < StartingHands.NUMBER_OF_CLASSES; i++) {
+                report.append(String.format(Locale.ROOT, "%-15s %10d %6.2f%% %10d %7.2f%% %10d %7.2f%%%n",
+                        StartingHands.getClassName(i), classHands[i], getPercentage(classHands[i], hands),
+                        classWins[i], getPercentage(classWins[i], classHands[i]), classTies[i],
+                        getPercentage(classTies[i], classHands[i])));
+            }
+        }
+        output.putString(report.toString());
+    }
+
+    // a single line JSON object of the counts, rates are left to the reader
+    public void writeJson(OutputBuffer output) {
+        output.putAscii("{\"deals\":");
+        output.putDecimal(deals);
+        output.putAscii(",\"hands\":");
+        output.putDecimal(hands);
+        output.putAscii(",\"skippedLines\":{");
+        boolean first = true;
+        for (Map.Entry<String, Long> skipped : skippedLines.entrySet()) {
+            if (!first) {
+                output.put((byte) ',');
+            }
+            first = false;
+            JsonDealFormatter.putJsonString(output, skipped.getKey());
+            output.put((byte) ':');
+            output.putDecimal(skipped.getValue());
+        }
+        output.putAscii("},\"dealsByPlayers\":{");
+        first = true;
+        for (int players = 0; players < dealsByPlayers.length; players++) {
+            if (dealsByPlayers[players] > 0) {
+                output.putAscii(first ? "\"" : ",\"");
+                first = false;
+                output.putDecimal(players);
+                output.putAscii("\":");
+                output.putDecimal(dealsByPlayers[players]);
+            }
+        }
+        output.putAscii("},\"handRankings\":{");
+        for (HandRanking ranking : HAND_RANKINGS) {
+            int i = ranking.ordinal();
+            putJsonCounts(output, i == 0, ranking.toString(), rankingHands[i], rankingWins[i], rankingTies[i]);
+        }
+        output.put((byte) '}');
+        if (startingHands) {
+            output.putAscii(",\"startingHands\":{");
+            for (int i = 0; i < StartingHands.NUMBER_OF_CLASSES; i++) {
+                putJsonCounts(output, i == 0, StartingHands.getClassName(i), classHands[i], classWins[i],
+                        classTies[i]);
+            }
+            output.put((byte) '}');
+        }
+        output.putAscii("}\n");
+    }
+
+    private static void putJsonCounts(OutputBuffer output, boolean first, String name, long hands, long wins,
+            long ties) {
+        output.putAscii(first ? "\"" : ",\"");
+        output.putAscii(name);
+        output.putAscii("\":{\"hands\":");
+        output.putDecimal(hands);
+        output.putAscii(",\"wins\":");
+        output.putDecimal(wins);
+        output.putAscii(",\"ties\":");
+        output.putDecimal(ties);
+        output.put((byte) '}');
+    }
+}
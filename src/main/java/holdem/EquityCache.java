@@ -0,0 +1,92 @@
+package holdem;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Persistent cache of calculated equities, one file per key in a directory, named by the SHA-256 hash of the key.
+// The key is stored in the file too, so a hash collision is a miss. Files are written to a temporary file first and
+// then moved in place, so concurrent processes sharing the directory never read a partly written entry. A miss is
+// counted when a calculated result is put, so lookups of lines that fail to calculate count as neither.
+public final class EquityCache {
+    private static final int FORMAT_VERSION = 1;
+    private static final String FILE_SUFFIX = ".equity";
+
+    private final Path directory;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public EquityCache(Path directory) throws IOException {
+        this.directory = Files.createDirectories(directory);
+    }
+
+    // the values stored with the key, or null if there are none
+    public double[] get(String key) {
+        Path file = getFile(key);
+        try (InputStream input = Files.newInputStream(file)) {
+            DataInputStream dataInput = new DataInputStream(input);
+            if (dataInput.readInt() != FORMAT_VERSION || !dataInput.readUTF().equals(key)) {
+                return null;
+            }
+            double[] values = new double[dataInput.readInt()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = dataInput.readDouble();
+            }
+            hits.incrementAndGet();
+            return values;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read equity cache file " + file, e);
+        }
+    }
+
+    public void put(String key, double[] values) {
+        misses.incrementAndGet();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(16 + key.length() + 8 * values.length);
+        try {
+            DataOutputStream dataOutput = new DataOutputStream(bytes);
+            dataOutput.writeInt(FORMAT_VERSION);
+            dataOutput.writeUTF(key);
+            dataOutput.writeInt(values.length);
+            for (double value : values) {
+                dataOutput.writeDouble(value);
+            }
+            dataOutput.flush();
+            Path temporaryFile = Files.createTempFile(directory, "entry", ".tmp");
+            Files.write(temporaryFile, bytes.toByteArray());
+            Files.move(temporaryFile, getFile(key), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write equity cache directory " + directory, e);
+        }
+    }
+
+    private Path getFile(String key) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            StringBuilder fileName = new StringBuilder();
+            for (byte b : hash) {
+                fileName.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return directory.resolve(fileName.append(FILE_SUFFIX).toString());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e); // every Java platform supports SHA-256
+        }
+    }
+
+    public String getStatistics() {
+        return "Equity cache: " + hits.get() + " hits, " + misses.get() + " misses";
+    }
+}
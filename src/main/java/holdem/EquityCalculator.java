@@ -0,0 +1,233 @@
+package holdem;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Calculates how often each Hold'em hand wins or ties against the others when the board is completed, either by
+// enumerating every runout (when there are at most maxSamples of them) or by seeded Monte Carlo sampling, limited
+// by maxSamples and optionally a time limit, which each sampling thread counts from its own start and checks only
+// after a first block of samples, so any result holds some runouts. The work is split between threads, each with
+// its own evaluator, in a pool kept for the lifetime of the calculator, which close() shuts down.
+public final class EquityCalculator implements Closeable {
+    private static final int BOARD_SIZE = 5;
+    private static final int SAMPLES_BETWEEN_TIME_CHECKS = 4096;
+
+    private final EvaluatorType evaluatorType;
+    private final int numberOfThreads;
+    private final long maxSamples;
+    private final long timeLimitNanos; // 0 for no limit
+    private final long seed;
+    private final ExecutorService executor;
+
+    public EquityCalculator(EvaluatorType evaluatorType, int numberOfThreads, long maxSamples, long timeLimitMillis,
+            long seed) {
+        if (numberOfThreads < 1 || maxSamples < 1) {
+            throw new IllegalArgumentException("Invalid number of threads or samples");
+        }
+        this.evaluatorType = evaluatorType;
+        this.numberOfThreads = numberOfThreads;
+        this.maxSamples = maxSamples;
+        this.timeLimitNanos = timeLimitMillis * 1_000_000;
+        this.seed = seed;
+        this.executor = Executors.newFixedThreadPool(numberOfThreads);
+    }
+
+    public static final class Result {
+        private final long[] wins;
+        private final long[] ties;
+        private long runouts;
+        private boolean exhaustive;
+
+        private Result(int numberOfHands) {
+            wins = new long[numberOfHands];
+            ties = new long[numberOfHands];
+        }
+
+        private void add(Result other) {
+            for (int i = 0; i < wins.length; i++) {
+                wins[i] += other.wins[i];
+                ties[i] += other.ties[i];
+            }
+            runouts += other.runouts;
+        }
+
+        public double getWinPercentage(int hand) {
+            return runouts == 0 ? 0 : 100.0 * wins[hand] / runouts;
+        }
+
+        public double getTiePercentage(int hand) {
+            return runouts == 0 ? 0 : 100.0 * ties[hand] / runouts;
+        }
+
+        public long getRunouts() {
+            return runouts;
+        }
+
+        public boolean isExhaustive() {
+            return exhaustive;
+        }
+    }
+
+    // the board has 0 to 5 cards, hole cards are 2 per hand, all cards must be distinct
+    public Result calculate(int[] boardCards, int[] holeCards) {
+        long usedCards = 0;
+        for (int card : boardCards) {
+            usedCards |= 1L << card;
+        }
+        for (int card : holeCards) {
+            usedCards |= 1L << card;
+        }
+        int[] unseenCards = new int[Card.NUMBER_OF_CARDS - Long.bitCount(usedCards)];
+        for (int card = 0, i = 0; card < Card.NUMBER_OF_CARDS; card++) {
+            if ((usedCards & 1L << card) == 0) {
+                unseenCards[i++] = card;
+            }
+        }
+        int missingCards = BOARD_SIZE - boardCards.length;
+        boolean exhaustive = getNumberOfRunouts(unseenCards.length, missingCards) <= maxSamples;
+
+        List<Worker> workers = new ArrayList<>();
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int i = 0; i < numberOfThreads; i++) {
+            workers.add(new Worker(i, boardCards, holeCards, unseenCards, random.split()));
+        }
+        Result result = new Result(holeCards.length / 2);
+        result.exhaustive = exhaustive;
+        try {
+            List<Future<Result>> workerResults = new ArrayList<>();
+            for (Worker worker : workers) {
+                Callable<Result> task = exhaustive ? worker::enumerate : worker::sample;
+                workerResults.add(executor.submit(task));
+            }
+            for (Future<Result> workerResult : workerResults) {
+                result.add(workerResult.get());
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+        if (result.runouts == 0) {
+            throw new RuntimeException("No runouts evaluated");
+        }
+        return result;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private static long getNumberOfRunouts(int numberOfUnseenCards, int missingCards) {
+        long combinations = 1;
+        for (int i = 0; i < missingCards; i++) {
+            combinations = combinations * (numberOfUnseenCards - i) / (i + 1);
+        }
+        return combinations;
+    }
+
+    private final class Worker {
+        private final int workerIndex;
+        private final int[] holeCards;
+        private final int[] unseenCards;
+        private final int knownBoardCards;
+        private final SplittableRandom random;
+        private final HandStrengthEvaluator evaluator = evaluatorType.newEvaluator();
+        private final int[] cards = new int[2 + BOARD_SIZE]; // hole cards of the evaluated hand, then the board
+        private final int[] strengths;
+        private final Result result;
+
+        private Worker(int workerIndex, int[] boardCards, int[] holeCards, int[] unseenCards,
+                SplittableRandom random) {
+            this.workerIndex = workerIndex;
+            this.holeCards = holeCards;
+            this.unseenCards = unseenCards.clone();
+            this.knownBoardCards = boardCards.length;
+            this.random = random;
+            System.arraycopy(boardCards, 0, cards, 2, boardCards.length);
+            strengths = new int[holeCards.length / 2];
+            result = new Result(strengths.length);
+        }
+
+        // runouts are split between workers by the index of their first card
+        private Result enumerate() {
+            if (knownBoardCards == BOARD_SIZE) {
+                if (workerIndex == 0) {
+                    evaluateRunout();
+                }
+                return result;
+            }
+            for (int first = workerIndex; first < unseenCards.length; first += numberOfThreads) {
+                cards[2 + knownBoardCards] = unseenCards[first];
+                enumerate(knownBoardCards + 1, first + 1);
+            }
+            return result;
+        }
+
+        private void enumerate(int boardCards, int nextUnseenCard) {
+            if (boardCards == BOARD_SIZE) {
+                evaluateRunout();
+                return;
+            }
+            for (int i = nextUnseenCard; i < unseenCards.length; i++) {
+                cards[2 + boardCards] = unseenCards[i];
+                enumerate(boardCards + 1, i + 1);
+            }
+        }
+
+        private Result sample() {
+            long samples = maxSamples / numberOfThreads + (workerIndex < maxSamples % numberOfThreads ? 1 : 0);
+            int missingCards = BOARD_SIZE - knownBoardCards;
+            long deadline = timeLimitNanos > 0 ? System.nanoTime() + timeLimitNanos : Long.MAX_VALUE;
+            for (long sample = 0; sample < samples; sample++) {
+                if (sample > 0 && sample % SAMPLES_BETWEEN_TIME_CHECKS == 0 && System.nanoTime() > deadline) {
+                    break;
+                }
+                for (int i = 0; i < missingCards; i++) { // partial Fisher-Yates shuffle of the unseen cards
+                    int chosen = i + random.nextInt(unseenCards.length - i);
+                    int card = unseenCards[chosen];
+                    unseenCards[chosen] = unseenCards[i];
+                    unseenCards[i] = card;
+                    cards[2 + knownBoardCards + i] = card;
+                }
+                evaluateRunout();
+            }
+            return result;
+        }
+
+        private void evaluateRunout() {
+            int bestStrength = -1;
+            int numberOfBestHands = 0;
+            for (int hand = 0; hand < strengths.length; hand++) {
+                cards[0] = holeCards[2 * hand];
+                cards[1] = holeCards[2 * hand + 1];
+                int strength = evaluator.evaluate(cards);
+                strengths[hand] = strength;
+                if (strength > bestStrength) {
+                    bestStrength = strength;
+                    numberOfBestHands = 1;
+                } else if (strength == bestStrength) {
+                    numberOfBestHands++;
+                }
+            }
+            for (int hand = 0; hand < strengths.length; hand++) {
+                if (strengths[hand] == bestStrength) {
+                    if (numberOfBestHands == 1) {
+                        result.wins[hand]++;
+                    } else {
+                        result.ties[hand]++;
+                    }
+                }
+            }
+            result.runouts++;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package holdem;
+
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+public enum EvaluatorType {
+    LEGACY("legacy", HandEvaluator::new), LOOKUP_TABLE("table", LookupTableEvaluator::getInstance),
+    BITMASK("bitmask", BitmaskEvaluator::new);
+
+    private String stringValue;
+    private Supplier<HandStrengthEvaluator> evaluatorSupplier;
+
+    EvaluatorType(String stringValue, Supplier<HandStrengthEvaluator> evaluatorSupplier) {
+        this.stringValue = stringValue;
+        this.evaluatorSupplier = evaluatorSupplier;
+    }
+
+    public static EvaluatorType fromString(String evaluatorString) {
+        return Stream.of(values()).filter(x -> x.stringValue.equals(evaluatorString)).findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown evaluator: " + evaluatorString));
+    }
+
+    // evaluators may keep state between calls, so each thread needs its own instance
+    public HandStrengthEvaluator newEvaluator() {
+        return evaluatorSupplier.get();
+    }
+
+    @Override
+    public String toString() {
+        return stringValue;
+    }
+}
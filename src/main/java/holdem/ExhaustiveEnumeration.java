@@ -0,0 +1,200 @@
+package holdem;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// Evaluates all C(52, 7) = 133784560 seven card hands the way Hand.evaluateHand() does, as 2 hole cards with a
+// BoardContext of 5 board cards, with each of the given evaluators. The hand ranking counts of the first evaluator
+// are compared with the known counts and the strengths of the others with its strengths. Each set of 7 cards is
+// evaluated once, as the 5 lowest cards on the board and the 2 highest in the hand. The work is split by the two
+// lowest cards into fork-join tasks.
+public final class ExhaustiveEnumeration {
+    private static final int HAND_SIZE = 7;
+    private static final int BOARD_SIZE = 5;
+    private static final HandRanking[] HAND_RANKINGS = HandRanking.values();
+    // 7 card hands of each ranking, from HIGH_CARD to STRAIGHT_FLUSH
+    private static final long[] REFERENCE_COUNTS = { 23_294_460, 58_627_800, 31_433_400, 6_461_620, 6_180_020,
+            4_047_644, 3_473_184, 224_848, 41_584 };
+
+    private final EvaluatorType[] evaluatorTypes;
+    private final int parallelism;
+    private final int[] lowestCards; // pairs of the two lowest cards of the hands of each task
+
+    public ExhaustiveEnumeration(List<EvaluatorType> evaluatorTypes, int parallelism) {
+        if (evaluatorTypes.isEmpty() || parallelism < 1) {
+            throw new IllegalArgumentException("Invalid evaluators or parallelism");
+        }
+        this.evaluatorTypes = evaluatorTypes.toArray(new EvaluatorType[0]);
+        this.parallelism = parallelism;
+        List<Integer> cards = new ArrayList<>();
+        for (int card1 = 0; card1 <= Card.NUMBER_OF_CARDS - HAND_SIZE; card1++) {
+            for (int card2 = card1 + 1; card2 <= Card.NUMBER_OF_CARDS - HAND_SIZE + 1; card2++) {
+                cards.add(card1);
+                cards.add(card2);
+            }
+        }
+        lowestCards = cards.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    public static final class Result {
+        private final long[] rankingCounts = new long[HAND_RANKINGS.length];
+        private final long[] mismatches; // by evaluator, against the first one
+        private String firstMismatch;
+        private long hands;
+        private long nanos;
+        private int parallelism;
+        private EvaluatorType[] evaluatorTypes;
+
+        private Result(int numberOfEvaluators) {
+            mismatches = new long[numberOfEvaluators];
+        }
+
+        private void add(Result other) {
+            for (int i = 0; i < rankingCounts.length; i++) {
+                rankingCounts[i] += other.rankingCounts[i];
+            }
+            for (int i = 0; i < mismatches.length; i++) {
+                mismatches[i] += other.mismatches[i];
+            }
+            if (firstMismatch == null) {
+                firstMismatch = other.firstMismatch;
+            }
+            hands += other.hands;
+        }
+
+        public boolean isSuccessful() {
+            for (int i = 0; i < rankingCounts.length; i++) {
+                if (rankingCounts[i] != REFERENCE_COUNTS[i]) {
+                    return false;
+                }
+            }
+            for (long evaluatorMismatches : mismatches) {
+                if (evaluatorMismatches != 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        public String getReport() {
+            StringBuilder report = new StringBuilder();
+            report.append(String.format(Locale.ROOT, "%-15s %12s %12s%n", "Hand ranking", "hands", "expected"));
+            for (HandRanking ranking : HAND_RANKINGS) {
+                int i = ranking.ordinal();
+                report.append(String.format(Locale.ROOT, "%-15s %12d %12d%s%n", ranking, rankingCounts[i],
+                        REFERENCE_COUNTS[i], rankingCounts[i] == REFERENCE_COUNTS[i] ? "" : " MISMATCH"));
+            }
+            for (int i = 1; i < evaluatorTypes.length; i++) {
+                report.append(String.format(Locale.ROOT, "Strengths of %s differing from %s: %d%n", evaluatorTypes[i],
+                        evaluatorTypes[0], mismatches[i]));
+            }
+            if (firstMismatch != null) {
+                report.append("First difference: ").append(firstMismatch).append(System.lineSeparator());
+            }
+            double seconds = nanos / 1e9;
+            report.append(String.format(Locale.ROOT,
+                    "%d hands with %d evaluators in %.3f s, %.0f hands/s, %.0f hands/s per core (%d threads)%n",
+                    hands, evaluatorTypes.length, seconds, hands / seconds, hands / seconds / parallelism,
+                    parallelism));
+            report.append(isSuccessful() ? "PASSED" : "FAILED").append(System.lineSeparator());
+            return report.toString();
+        }
+    }
+
+    public Result run() {
+        long start = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            Result result = pool.invoke(new EnumerationTask(0, lowestCards.length / 2));
+            result.nanos = System.nanoTime() - start;
+            result.parallelism = parallelism;
+            result.evaluatorTypes = evaluatorTypes;
+            return result;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // enumerates the hands of a range of lowest card pairs, split in halves down to a single pair
+    private final class EnumerationTask extends RecursiveTask<Result> {
+        private static final long serialVersionUID = 1L;
+
+        private final int start;
+        private final int end;
+
+        private EnumerationTask(int start, int end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected Result compute() {
+            if (end - start > 1) {
+                int middle = (start + end) >>> 1;
+                EnumerationTask second = new EnumerationTask(middle, end);
+                second.fork();
+                Result result = new EnumerationTask(start, middle).compute();
+                result.add(second.join());
+                return result;
+            }
+            return enumerate(lowestCards[2 * start], lowestCards[2 * start + 1]);
+        }
+
+        private Result enumerate(int card1, int card2) {
+            HandStrengthEvaluator[] evaluators = new HandStrengthEvaluator[evaluatorTypes.length];
+            for (int i = 0; i < evaluators.length; i++) {
+                evaluators[i] = evaluatorTypes[i].newEvaluator();
+            }
+            Result result = new Result(evaluators.length);
+            int[] boardCards = { card1, card2, 0, 0, 0 };
+            for (int card3 = card2 + 1; card3 < Card.NUMBER_OF_CARDS - 4; card3++) {
+                boardCards[2] = card3;
+                for (int card4 = card3 + 1; card4 < Card.NUMBER_OF_CARDS - 3; card4++) {
+                    boardCards[3] = card4;
+                    for (int card5 = card4 + 1; card5 < Card.NUMBER_OF_CARDS - 2; card5++) {
+                        boardCards[4] = card5;
+                        BoardContext board = new BoardContext(boardCards);
+                        for (int holeCard1 = card5 + 1; holeCard1 < Card.NUMBER_OF_CARDS - 1; holeCard1++) {
+                            for (int holeCard2 = holeCard1 + 1; holeCard2 < Card.NUMBER_OF_CARDS; holeCard2++) {
+                                evaluate(evaluators, board, holeCard1, holeCard2, result);
+                            }
+                        }
+                    }
+                }
+            }
+            return result;
+        }
+
+        private void evaluate(HandStrengthEvaluator[] evaluators, BoardContext board, int holeCard1, int holeCard2,
+                Result result) {
+            int strength = evaluators[0].evaluate(board, holeCard1, holeCard2);
+            result.rankingCounts[strength >>> HandStrength.RANKING_SHIFT]++;
+            for (int i = 1; i < evaluators.length; i++) {
+                int otherStrength = evaluators[i].evaluate(board, holeCard1, holeCard2);
+                if (otherStrength != strength) {
+                    result.mismatches[i]++;
+                    if (result.firstMismatch == null) {
+                        result.firstMismatch = describeMismatch(board, holeCard1, holeCard2, i, strength,
+                                otherStrength);
+                    }
+                }
+            }
+            result.hands++;
+        }
+
+        private String describeMismatch(BoardContext board, int holeCard1, int holeCard2, int evaluator,
+                int strength, int otherStrength) {
+            StringBuilder cards = new StringBuilder();
+            for (int card : board.getCards()) {
+                cards.append(Card.valueOf(card));
+            }
+            cards.append(' ').append(Card.valueOf(holeCard1)).append(Card.valueOf(holeCard2));
+            return String.format(Locale.ROOT, "%s: %s %s (0x%x), %s %s (0x%x)", cards, evaluatorTypes[0],
+                    HandStrength.getHandRanking(strength), strength, evaluatorTypes[evaluator],
+                    HandStrength.getHandRanking(otherStrength), otherStrength);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package holdem;
+
+public enum GameType {
+    HOLDEM(2), OMAHA(4);
+
+    private int numberOfHoleCards;
+
+    GameType(int numberOfHoleCards) {
+        this.numberOfHoleCards = numberOfHoleCards;
+    }
+
+    public int getNumberOfHoleCards() {
+        return numberOfHoleCards;
+    }
+}
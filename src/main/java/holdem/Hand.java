@@ -1,163 +1,113 @@
 package holdem;
 
-import java.util.List;
-
 public class Hand implements Comparable<Hand> {
+    private static final int ALPHABETICAL_ORDER_BITS = 6;
+
+    private int index;
     private Card[] handCards;
+    private int alphabeticalKey;
     private Card[] boardCards;
-    private HandEvaluator evaluator;
-
-    Hand(Card card1, Card card2, Card[] boardCards) {
-        this.handCards = new Card[] { card1, card2 };
-        this.boardCards = boardCards;
-        evaluator = new HandEvaluator(this);
-    }
-
-    public Card[] getHandCards() {
-        return handCards;
-    }
+    private BoardContext board;
+    private HandStrengthEvaluator evaluator;
+    private OmahaEvaluator omahaEvaluator;
+    private int strength;
 
-    public Card[] getBoardCards() {
-        return boardCards;
+    Hand(int index, Card card1, Card card2, Card[] boardCards, BoardContext board, HandStrengthEvaluator evaluator) {
+        this.handCards = new Card[2];
+        reset(index, card1, card2, boardCards, board, evaluator);
     }
 
-    private HandRanking getHandRanking() {
-        return evaluator.getHandRanking();
+    Hand(int index, Card[] handCards, Card[] boardCards, OmahaEvaluator omahaEvaluator) {
+        this.index = index;
+        this.handCards = handCards;
+        this.alphabeticalKey = getAlphabeticalKey(handCards);
+        this.boardCards = boardCards;
+        this.omahaEvaluator = omahaEvaluator;
     }
 
-    @Override
-    public int compareTo(Hand other) {
-        return compareTo(other, true);
+    // makes a Hold'em hand another one, so that an App can reuse its hands from deal to deal
+    void reset(int index, Card card1, Card card2, Card[] boardCards, BoardContext board,
+            HandStrengthEvaluator evaluator) {
+        this.index = index;
+        this.handCards[0] = card1;
+        this.handCards[1] = card2;
+        this.alphabeticalKey = getAlphabeticalKey(handCards);
+        this.boardCards = boardCards;
+        this.board = board;
+        this.evaluator = evaluator;
+        this.strength = 0;
     }
 
-    public int compareTo(Hand other, boolean considerAlphabeticOrdering) {
-        int rankingOrdinal = getHandRanking().ordinal();
-        int otherRankingOrdinal = other.getHandRanking().ordinal();
-        if (rankingOrdinal == otherRankingOrdinal) {
-            int sameHandRankingComparison = compareToHandWithSameHandRanking(other);
-            if (sameHandRankingComparison == 0 && considerAlphabeticOrdering) {
-                return toString().compareTo(other.toString());
-            }
-            return sameHandRankingComparison;
+    // orders hands with the same number of cards like their strings, 6 bits per card
+    private static int getAlphabeticalKey(Card[] cards) {
+        int key = 0;
+        for (Card card : cards) {
+            key = key << ALPHABETICAL_ORDER_BITS | card.getAlphabeticalOrder();
         }
-        return rankingOrdinal > otherRankingOrdinal ? 1 : -1;
+        return key;
     }
 
-    private int compareToHandWithSameHandRanking(Hand other) {
-        HandRanking ranking = getHandRanking();
-        switch (ranking) {
-            case STRAIGHT_FLUSH:
-                return compareStraightFlushes(other);
-            case FOUR_OF_A_KIND:
-                return compareFourOfAKinds(other);
-            case FULL_HOUSE:
-                return compareFullHouses(other);
-            case FLUSH:
-                return compareFlushes(other);
-            case STRAIGHT:
-                return compareStraights(other);
-            case THREE_OF_A_KIND:
-                return compareThreeOfAKinds(other);
-            case TWO_PAIRS:
-                return compareTwoPairsHands(other);
-            case PAIR:
-                return comparePairs(other);
-            default: // HIGH_CARD
-                return compareHighCards(other);
-        }
+    // position of the hand in its deal line
+    public int getIndex() {
+        return index;
     }
 
-    private int compareStraightFlushes(Hand other) {
-        Rank topCard = evaluator.getStraightFlushTopCardRank();
-        Rank otherTopCard = other.evaluator.getStraightFlushTopCardRank();
-        return topCard.compareTo(otherTopCard);
+    public Card[] getHandCards() {
+        return handCards;
     }
 
-    private int compareFourOfAKinds(Hand other) {
-        Rank four = evaluator.getFourOfAKindRank();
-        Rank otherFour = other.evaluator.getFourOfAKindRank();
-        Rank kicker = evaluator.getFourOfAKindKickerRank();
-        Rank otherKicker = other.evaluator.getFourOfAKindKickerRank();
-        int foursComparison = four.compareTo(otherFour);
-        return foursComparison != 0 ? foursComparison : kicker.compareTo(otherKicker);
+    public Card[] getBoardCards() {
+        return boardCards;
     }
 
-    private int compareFullHouses(Hand other) {
-        Rank three = evaluator.getThreeOfAKindRank();
-        Rank otherThree = other.evaluator.getThreeOfAKindRank();
-        Rank pair = evaluator.getHighestPairRank();
-        Rank otherPair = other.evaluator.getHighestPairRank();
-        int threesComparison = three.compareTo(otherThree);
-        return threesComparison != 0 ? threesComparison : pair.compareTo(otherPair);
+    public HandRanking getHandRanking() {
+        return HandStrength.getHandRanking(strength);
     }
 
-    private int compareFlushes(Hand other) {
-        List<Rank> ranks = evaluator.getFlushRankList();
-        List<Rank> otherRanks = other.evaluator.getFlushRankList();
-        return compareKickers(ranks, otherRanks);
+    public int getStrength() {
+        return strength;
     }
 
-    private int compareKickers(List<Rank> ranks, List<Rank> otherRanks) {
-        int sizeOfRankList = ranks.size();
-        int rankComparison = 0;
-        for (int i = 0; i < sizeOfRankList; i++) {
-            rankComparison = ranks.get(i).compareTo(otherRanks.get(i));
-            if (rankComparison != 0) {
-                return rankComparison;
-            }
-        }
-        return rankComparison;
+    // for Hold'em and Omaha hands below 2^24
+    int getAlphabeticalKey() {
+        return alphabeticalKey;
     }
 
-    private int compareStraights(Hand other) {
-        Rank topCard = evaluator.getStraightTopCardRank();
-        Rank otherTopCard = other.evaluator.getStraightTopCardRank();
-        return topCard.compareTo(otherTopCard);
+    void setStrength(int strength) {
+        this.strength = strength;
     }
 
-    private int compareThreeOfAKinds(Hand other) {
-        Rank three = evaluator.getThreeOfAKindRank();
-        Rank otherThree = other.evaluator.getThreeOfAKindRank();
-        List<Rank> kickers = evaluator.getThreeOfAKindKickerRanks();
-        List<Rank> otherKickers = other.evaluator.getThreeOfAKindKickerRanks();
-        int threesComparison = three.compareTo(otherThree);
-        return threesComparison != 0 ? threesComparison : compareKickers(kickers, otherKickers);
+    @Override
+    public int compareTo(Hand other) {
+        return compareTo(other, true);
     }
 
-    private int compareTwoPairsHands(Hand other) {
-        Rank highPair = evaluator.getHighestPairRank();
-        Rank otherHighPair = other.evaluator.getHighestPairRank();
-        Rank lowPair = evaluator.getSecondHighestPairRank();
-        Rank otherLowPair = other.evaluator.getSecondHighestPairRank();
-        Rank kicker = evaluator.getTwoPairsKickerRank();
-        Rank otherKicker = other.evaluator.getTwoPairsKickerRank();
-        int highPairsComparison = highPair.compareTo(otherHighPair);
-        if (highPairsComparison != 0) {
-            return highPairsComparison;
+    public int compareTo(Hand other, boolean considerAlphabeticOrdering) {
+        int strengthComparison = Integer.compare(strength, other.strength);
+        if (strengthComparison == 0 && considerAlphabeticOrdering) {
+            return Integer.compare(alphabeticalKey, other.alphabeticalKey);
         }
-        int lowPairsComparison = lowPair.compareTo(otherLowPair);
-        return lowPairsComparison != 0 ? lowPairsComparison : kicker.compareTo(otherKicker);
-    }
-
-    private int comparePairs(Hand other) {
-        Rank pair = evaluator.getHighestPairRank();
-        Rank otherPair = other.evaluator.getHighestPairRank();
-        List<Rank> kickers = evaluator.getPairKickerRanks();
-        List<Rank> otherKickers = other.evaluator.getPairKickerRanks();
-        int pairsComparison = pair.compareTo(otherPair);
-        return pairsComparison != 0 ? pairsComparison : compareKickers(kickers, otherKickers);
-    }
-
-    private int compareHighCards(Hand other) {
-        return compareKickers(evaluator.getHighCardKickerRanks(), other.evaluator.getHighCardKickerRanks());
+        return strengthComparison;
     }
 
     @Override
     public String toString() {
-        return handCards[0].toString() + handCards[1].toString();
+        StringBuilder result = new StringBuilder();
+        for (Card card : handCards) {
+            result.append(card);
+        }
+        return result.toString();
     }
 
     public void evaluateHand() {
-        evaluator.evaluateHand();
+        if (omahaEvaluator != null) {
+            int[] cards = new int[handCards.length];
+            for (int i = 0; i < cards.length; i++) {
+                cards[i] = handCards[i].getIndex();
+            }
+            strength = omahaEvaluator.evaluate(cards);
+        } else {
+            strength = evaluator.evaluate(board, handCards[0].getIndex(), handCards[1].getIndex());
+        }
     }
 }
@@ -1,15 +1,13 @@
 package holdem;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
-public class HandEvaluator {
+public class HandEvaluator implements HandStrengthEvaluator {
     private ArrayList<Card> cards; // sorted card list
     private Map<Rank, List<Card>> rankMap;
     private Map<Suit, List<Card>> suitMap;
@@ -23,11 +21,8 @@ public class HandEvaluator {
     private List<Rank> rankList; // all present ranks in increasing order
     private HandRanking handRanking;
 
-    HandEvaluator(Hand hand) {
+    HandEvaluator() {
         cards = new ArrayList<>();
-        cards.addAll(Arrays.asList(hand.getHandCards()));
-        cards.addAll(Arrays.asList(hand.getBoardCards()));
-        Collections.sort(cards);
         rankMap = new HashMap<>();
         suitMap = new HashMap<>();
         pairRanks = new ArrayList<>();
@@ -36,6 +31,24 @@ public class HandEvaluator {
         rankList = new ArrayList<>();
     }
 
+    private void reset(int[] cardIndices) {
+        cards.clear();
+        for (int cardIndex : cardIndices) {
+            cards.add(Card.valueOf(cardIndex));
+        }
+        Collections.sort(cards);
+        rankMap.clear();
+        suitMap.clear();
+        pairRanks.clear();
+        threeOfAKindRanks.clear();
+        longestRankSequence.clear();
+        rankList.clear();
+        straightFlushTopCardRank = null;
+        straightTopCardRank = null;
+        flushSuit = null;
+        fourOfAKindRank = null;
+    }
+
     private void preprocessHand() {
         List<Rank> rankSequence = new ArrayList<>();
         boolean hasTwo = cards.get(0).getRank() == Rank.TWO;
@@ -210,8 +223,7 @@ public class HandEvaluator {
     }
 
     public Rank getFourOfAKindKickerRank() {
-        return cards.stream().sorted(Comparator.reverseOrder()).filter(card -> card.getRank() != fourOfAKindRank)
-                .map(card -> card.getRank()).findFirst().get();
+        return getHighestRanks(cards, 1, fourOfAKindRank).get(0);
     }
 
     public Rank getThreeOfAKindRank() {
@@ -223,8 +235,7 @@ public class HandEvaluator {
     }
 
     public List<Rank> getFlushRankList() { // flush rank list in decreasing rank order
-        return suitMap.get(flushSuit).stream().sorted(Comparator.reverseOrder()).map(card -> card.getRank()).limit(5)
-                .collect(Collectors.toList());
+        return getHighestRanks(suitMap.get(flushSuit), 5);
     }
 
     public Rank getStraightTopCardRank() {
@@ -232,9 +243,7 @@ public class HandEvaluator {
     }
 
     public List<Rank> getThreeOfAKindKickerRanks() {
-        Rank threeOfAKindRank = threeOfAKindRanks.get(0);
-        return cards.stream().sorted(Comparator.reverseOrder()).filter(card -> card.getRank() != threeOfAKindRank)
-                .limit(2).map(card -> card.getRank()).collect(Collectors.toList());
+        return getHighestRanks(cards, 2, threeOfAKindRanks.get(0));
     }
 
     public Rank getSecondHighestPairRank() {
@@ -242,22 +251,37 @@ public class HandEvaluator {
     }
 
     public Rank getTwoPairsKickerRank() {
-        Rank highestPairRank = pairRanks.get(0);
-        Rank secondHighestPairRank = pairRanks.get(1);
-        return cards.stream().sorted(Comparator.reverseOrder())
-                .filter(card -> card.getRank() != highestPairRank && card.getRank() != secondHighestPairRank)
-                .map(card -> card.getRank()).findFirst().get();
+        return getHighestRanks(cards, 1, pairRanks.get(0), pairRanks.get(1)).get(0);
     }
 
     public List<Rank> getPairKickerRanks() {
-        Rank pairRank = pairRanks.get(0);
-        return cards.stream().sorted(Comparator.reverseOrder()).filter(card -> card.getRank() != pairRank).limit(3)
-                .map(card -> card.getRank()).collect(Collectors.toList());
+        return getHighestRanks(cards, 3, pairRanks.get(0));
     }
 
     public List<Rank> getHighCardKickerRanks() {
-        return cards.stream().sorted(Comparator.reverseOrder()).map(card -> card.getRank()).limit(5)
-                .collect(Collectors.toList());
+        return getHighestRanks(cards, 5);
+    }
+
+    // ranks of the highest cards in decreasing order, skipping the excluded ranks; the card lists are kept sorted
+    // in increasing rank order, so this walks them from the end instead of sorting again
+    private static List<Rank> getHighestRanks(List<Card> sortedCards, int numberOfRanks, Rank... excludedRanks) {
+        List<Rank> ranks = new ArrayList<>(numberOfRanks);
+        for (int i = sortedCards.size() - 1; i >= 0 && ranks.size() < numberOfRanks; i--) {
+            Rank rank = sortedCards.get(i).getRank();
+            if (!isExcluded(rank, excludedRanks)) {
+                ranks.add(rank);
+            }
+        }
+        return ranks;
+    }
+
+    private static boolean isExcluded(Rank rank, Rank[] excludedRanks) {
+        for (Rank excludedRank : excludedRanks) {
+            if (rank == excludedRank) {
+                return true;
+            }
+        }
+        return false;
     }
 
     public void evaluateHand() {
@@ -265,4 +289,45 @@ public class HandEvaluator {
         determinePossibleHandRankings();
         handRanking = decideOverallHandRanking();
     }
+
+    @Override
+    public int evaluate(int[] cardIndices) {
+        reset(cardIndices);
+        evaluateHand();
+        return getStrength();
+    }
+
+    private int getStrength() {
+        switch (handRanking) {
+            case STRAIGHT_FLUSH:
+                return HandStrength.of(handRanking, getStraightFlushTopCardRank().ordinal());
+            case FOUR_OF_A_KIND:
+                return HandStrength.of(handRanking, getFourOfAKindRank().ordinal(),
+                        getFourOfAKindKickerRank().ordinal());
+            case FULL_HOUSE:
+                return HandStrength.of(handRanking, getThreeOfAKindRank().ordinal(),
+                        getHighestPairRank().ordinal());
+            case FLUSH:
+                return HandStrength.of(handRanking, getOrdinals(getFlushRankList()));
+            case STRAIGHT:
+                return HandStrength.of(handRanking, getStraightTopCardRank().ordinal());
+            case THREE_OF_A_KIND:
+                List<Rank> kickers = getThreeOfAKindKickerRanks();
+                return HandStrength.of(handRanking, getThreeOfAKindRank().ordinal(), kickers.get(0).ordinal(),
+                        kickers.get(1).ordinal());
+            case TWO_PAIRS:
+                return HandStrength.of(handRanking, getHighestPairRank().ordinal(),
+                        getSecondHighestPairRank().ordinal(), getTwoPairsKickerRank().ordinal());
+            case PAIR:
+                List<Rank> pairKickers = getPairKickerRanks();
+                return HandStrength.of(handRanking, getHighestPairRank().ordinal(), pairKickers.get(0).ordinal(),
+                        pairKickers.get(1).ordinal(), pairKickers.get(2).ordinal());
+            default: // HIGH_CARD
+                return HandStrength.of(handRanking, getOrdinals(getHighCardKickerRanks()));
+        }
+    }
+
+    private int[] getOrdinals(List<Rank> ranks) {
+        return ranks.stream().mapToInt(Rank::ordinal).toArray();
+    }
 }
\ No newline at end of file
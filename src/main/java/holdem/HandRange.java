@@ -0,0 +1,169 @@
+package holdem;
+
+import java.util.BitSet;
+
+// A range of Hold'em hole cards in the usual notation: comma separated terms such as QQ+ (queens or better pairs),
+// JJ-88, AKs (suited), KQo (offsuit), AT (both), A2s+ (kickers from 2 up to king), KTo-K7o or exact hole cards such
+// as AhKh. Whitespace is ignored. A range is the set of its distinct combinations of two cards, so overlapping terms
+// don't give a combination more weight.
+public final class HandRange {
+    public static final int NUMBER_OF_COMBOS = Card.NUMBER_OF_CARDS * (Card.NUMBER_OF_CARDS - 1) / 2;
+    private static final int NUMBER_OF_SUITS = 4;
+    private static final char SUITED = 's';
+    private static final char OFFSUIT = 'o';
+    private static final char ANY_SUITS = 0;
+    private static final int[] COMBO_CARDS = new int[2 * NUMBER_OF_COMBOS]; // pairs of cards by combo index
+
+    static {
+        for (int card2 = 1; card2 < Card.NUMBER_OF_CARDS; card2++) {
+            for (int card1 = 0; card1 < card2; card1++) {
+                int combo = getComboIndex(card1, card2);
+                COMBO_CARDS[2 * combo] = card1;
+                COMBO_CARDS[2 * combo + 1] = card2;
+            }
+        }
+    }
+
+    private final String notation;
+    private final BitSet comboSet;
+    private final int[] combos;
+
+    private HandRange(String notation, BitSet comboSet) {
+        this.notation = notation;
+        this.comboSet = comboSet;
+        this.combos = new int[2 * comboSet.cardinality()];
+        for (int combo = comboSet.nextSetBit(0), i = 0; combo >= 0; combo = comboSet.nextSetBit(combo + 1), i += 2) {
+            combos[i] = COMBO_CARDS[2 * combo];
+            combos[i + 1] = COMBO_CARDS[2 * combo + 1];
+        }
+    }
+
+    public static HandRange parse(String rangeString) {
+        String notation = rangeString.replaceAll("\\s", "");
+        BitSet comboSet = new BitSet(NUMBER_OF_COMBOS);
+        for (String term : notation.split(",", -1)) {
+            addTerm(term, comboSet);
+        }
+        return new HandRange(notation, comboSet);
+    }
+
+    // the range of a single starting hand class, see StartingHands
+    public static HandRange ofClass(int classIndex) {
+        BitSet comboSet = new BitSet(NUMBER_OF_COMBOS);
+        int[] classCombos = StartingHands.getCombos(classIndex);
+        for (int i = 0; i < classCombos.length; i += 2) {
+            comboSet.set(getComboIndex(classCombos[i], classCombos[i + 1]));
+        }
+        return new HandRange(StartingHands.getClassName(classIndex), comboSet);
+    }
+
+    private static int getComboIndex(int card1, int card2) { // card1 < card2
+        return card2 * (card2 - 1) / 2 + card1;
+    }
+
+    private static void addTerm(String term, BitSet comboSet) {
+        if (term.length() == 4 && Card.indexOf(term.charAt(0), term.charAt(1)) >= 0) {
+            int card1 = Card.indexOf(term.charAt(0), term.charAt(1));
+            int card2 = Card.indexOf(term.charAt(2), term.charAt(3));
+            if (card2 < 0 || card1 == card2) {
+                throw invalidRange(term);
+            }
+            comboSet.set(getComboIndex(Math.min(card1, card2), Math.max(card1, card2)));
+            return;
+        }
+        int end = getClassLength(term, 0);
+        int highRank = Math.max(Card.rankOrdinalOf(term.charAt(0)), Card.rankOrdinalOf(term.charAt(1)));
+        int lowRank = Math.min(Card.rankOrdinalOf(term.charAt(0)), Card.rankOrdinalOf(term.charAt(1)));
+        char suits = end == 3 ? term.charAt(2) : ANY_SUITS;
+        if (end == term.length()) {
+            addClass(highRank, lowRank, suits, comboSet);
+        } else if (term.charAt(end) == '+' && end + 1 == term.length()) {
+            if (highRank == lowRank) { // pairs up to aces
+                for (int rank = lowRank; rank < Rank.values().length; rank++) {
+                    addClass(rank, rank, suits, comboSet);
+                }
+            } else { // kickers up to one below the high card
+                for (int rank = lowRank; rank < highRank; rank++) {
+                    addClass(highRank, rank, suits, comboSet);
+                }
+            }
+        } else if (term.charAt(end) == '-' && getClassLength(term, end + 1) == end && 2 * end + 1 == term.length()) {
+            int otherHighRank = Math.max(Card.rankOrdinalOf(term.charAt(end + 1)),
+                    Card.rankOrdinalOf(term.charAt(end + 2)));
+            int otherLowRank = Math.min(Card.rankOrdinalOf(term.charAt(end + 1)),
+                    Card.rankOrdinalOf(term.charAt(end + 2)));
+            char otherSuits = end == 3 ? term.charAt(end + 3) : ANY_SUITS;
+            if (highRank == lowRank && otherHighRank == otherLowRank) { // pairs between the two
+                for (int rank = Math.min(lowRank, otherLowRank); rank <= Math.max(lowRank, otherLowRank); rank++) {
+                    addClass(rank, rank, suits, comboSet);
+                }
+            } else if (highRank == otherHighRank && highRank != lowRank && highRank != otherLowRank
+                    && suits == otherSuits) { // kickers between the two
+                for (int rank = Math.min(lowRank, otherLowRank); rank <= Math.max(lowRank, otherLowRank); rank++) {
+                    addClass(highRank, rank, suits, comboSet);
+                }
+            } else {
+                throw invalidRange(term);
+            }
+        } else {
+            throw invalidRange(term);
+        }
+    }
+
+    // length of the starting hand class (two ranks and an optional s or o) at the offset of the term
+    private static int getClassLength(String term, int offset) {
+        if (term.length() < offset + 2 || Card.rankOrdinalOf(term.charAt(offset)) < 0
+                || Card.rankOrdinalOf(term.charAt(offset + 1)) < 0) {
+            throw invalidRange(term);
+        }
+        boolean pair = term.charAt(offset) == term.charAt(offset + 1);
+        if (term.length() > offset + 2 && (term.charAt(offset + 2) == SUITED || term.charAt(offset + 2) == OFFSUIT)) {
+            if (pair) {
+                throw invalidRange(term);
+            }
+            return 3;
+        }
+        return 2;
+    }
+
+    private static void addClass(int highRank, int lowRank, char suits, BitSet comboSet) {
+        for (int suit1 = 0; suit1 < NUMBER_OF_SUITS; suit1++) {
+            for (int suit2 = 0; suit2 < NUMBER_OF_SUITS; suit2++) {
+                boolean included = highRank == lowRank ? suit1 < suit2
+                        : suits == SUITED ? suit1 == suit2 : suits == OFFSUIT ? suit1 != suit2 : true;
+                if (included) {
+                    int card1 = highRank << 2 | suit1;
+                    int card2 = lowRank << 2 | suit2;
+                    comboSet.set(getComboIndex(Math.min(card1, card2), Math.max(card1, card2)));
+                }
+            }
+        }
+    }
+
+    private static RuntimeException invalidRange(String term) {
+        return new RuntimeException("Invalid range encountered: " + term);
+    }
+
+    public int getNumberOfCombos() {
+        return combos.length / 2;
+    }
+
+    // the hole cards of each combination as pairs of card indices, lower index first
+    int[] getCombos() {
+        return combos;
+    }
+
+    // the same for all notations of the same set of combinations, e.g. QQ+ and AA,KK,QQ
+    public String getCanonicalKey() {
+        StringBuilder key = new StringBuilder();
+        for (long word : comboSet.toLongArray()) {
+            key.append(Long.toHexString(word)).append('.');
+        }
+        return key.toString();
+    }
+
+    @Override
+    public String toString() {
+        return notation;
+    }
+}
@@ -0,0 +1,26 @@
+package holdem;
+
+// Strength of the best 5 card hand packed into an int: hand ranking ordinal in the top bits, followed by up to
+// five 4 bit rank ordinals (most significant first), so that strengths compare like the hands themselves
+public final class HandStrength {
+    static final int RANKING_SHIFT = 20;
+    private static final int RANK_BITS = 4;
+    private static final HandRanking[] HAND_RANKINGS = HandRanking.values();
+
+    private HandStrength() {
+    }
+
+    static int of(HandRanking ranking, int... rankOrdinals) {
+        int strength = ranking.ordinal() << RANKING_SHIFT;
+        int shift = RANKING_SHIFT;
+        for (int rankOrdinal : rankOrdinals) {
+            shift -= RANK_BITS;
+            strength |= rankOrdinal << shift;
+        }
+        return strength;
+    }
+
+    public static HandRanking getHandRanking(int strength) {
+        return HAND_RANKINGS[strength >>> RANKING_SHIFT];
+    }
+}
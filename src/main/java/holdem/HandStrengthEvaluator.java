@@ -0,0 +1,16 @@
+package holdem;
+
+public interface HandStrengthEvaluator {
+    // cards are indices as returned by Card.getIndex(), result is a HandStrength of the best 5 card hand
+    int evaluate(int[] cards);
+
+    // evaluates the board cards completed with the 2 hole cards
+    default int evaluate(BoardContext board, int holeCard1, int holeCard2) {
+        int[] boardCards = board.getCards();
+        int[] cards = new int[boardCards.length + 2];
+        cards[0] = holeCard1;
+        cards[1] = holeCard2;
+        System.arraycopy(boardCards, 0, cards, 2, boardCards.length);
+        return evaluate(cards);
+    }
+}
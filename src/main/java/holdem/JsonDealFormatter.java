@@ -0,0 +1,57 @@
+package holdem;
+
+// One JSON object per line, e.g. {"deal":0,"hands":[["Ac4d"],["Ad4s","5d6d"]]} with tie groups of equally strong
+// hands in ascending strength, or {"deal":1,"error":"...","line":"..."}. Non-ASCII characters are escaped.
+public final class JsonDealFormatter implements DealFormatter {
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    @Override
+    public void formatDeal(OutputBuffer output, long dealIndex, SortedDeal sortedDeal) {
+        output.putAscii("{\"deal\":");
+        output.putDecimal(dealIndex);
+        output.putAscii(",\"hands\":[");
+        for (int i = 0; i < sortedDeal.size(); i++) {
+            if (i == 0) {
+                output.put((byte) '[');
+            } else {
+                output.putAscii(sortedDeal.isTiedWithPrevious(i) ? "," : "],[");
+            }
+            output.put((byte) '"');
+            for (Card card : sortedDeal.getHand(i).getHandCards()) {
+                output.putAscii(card.toString());
+            }
+            output.put((byte) '"');
+        }
+        output.putAscii(sortedDeal.size() == 0 ? "]}\n" : "]]}\n");
+    }
+
+    @Override
+    public void formatError(OutputBuffer output, long dealIndex, String message, String line) {
+        output.putAscii("{\"deal\":");
+        output.putDecimal(dealIndex);
+        output.putAscii(",\"error\":");
+        putJsonString(output, message);
+        output.putAscii(",\"line\":");
+        putJsonString(output, line);
+        output.putAscii("}\n");
+    }
+
+    static void putJsonString(OutputBuffer output, String string) {
+        output.put((byte) '"');
+        for (int i = 0; i < string.length(); i++) {
+            char c = string.charAt(i);
+            if (c == '"' || c == '\\') {
+                output.put((byte) '\\');
+                output.put((byte) c);
+            } else if (c >= ' ' && c < 0x7F) {
+                output.put((byte) c);
+            } else {
+                output.putAscii("\\u");
+                for (int shift = 12; shift >= 0; shift -= 4) {
+                    output.put((byte) HEX_DIGITS[c >>> shift & 0xF]);
+                }
+            }
+        }
+        output.put((byte) '"');
+    }
+}
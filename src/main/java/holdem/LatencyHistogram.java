@@ -0,0 +1,70 @@
+package holdem;
+
+// Log-linear histogram in the style of HdrHistogram: values below 64 have a bucket each, larger values fall into
+// one of 32 buckets per power of two, so they are kept with about 3% precision. Recording takes a few arithmetic
+// operations and allocates nothing. Written by one thread; other threads may read approximate values.
+public final class LatencyHistogram {
+    private static final int LINEAR_BUCKET_BITS = 6;
+    private static final int LINEAR_BUCKETS = 1 << LINEAR_BUCKET_BITS;
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int NUMBER_OF_BUCKETS = LINEAR_BUCKETS + (Long.SIZE - 1 - LINEAR_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final long[] counts = new long[NUMBER_OF_BUCKETS];
+    private long count;
+    private long max;
+
+    public void record(long value) {
+        long positiveValue = Math.max(value, 0);
+        counts[getBucket(positiveValue)]++;
+        count++;
+        max = Math.max(max, positiveValue);
+    }
+
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < NUMBER_OF_BUCKETS; i++) {
+            counts[i] += other.counts[i];
+        }
+        count += other.count;
+        max = Math.max(max, other.max);
+    }
+
+    private static int getBucket(long value) {
+        if (value < LINEAR_BUCKETS) {
+            return (int) value;
+        }
+        int shift = Long.SIZE - 1 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS; // keeps the top 6 bits
+        return LINEAR_BUCKETS + (shift - 1) * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+    }
+
+    // the highest value that falls into the bucket
+    private static long getBucketMaximum(int bucket) {
+        if (bucket < LINEAR_BUCKETS) {
+            return bucket;
+        }
+        int shift = (bucket - LINEAR_BUCKETS) / SUB_BUCKETS + 1;
+        long subBucket = (bucket - LINEAR_BUCKETS) % SUB_BUCKETS + SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+    // the value that the given percentage of recorded values are at most equal to (within the precision)
+    public long getValueAtPercentile(double percentile) {
+        long target = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long cumulativeCount = 0;
+        for (int i = 0; i < NUMBER_OF_BUCKETS; i++) {
+            cumulativeCount += counts[i];
+            if (cumulativeCount >= target) {
+                return Math.min(getBucketMaximum(i), max);
+            }
+        }
+        return max;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getMax() {
+        return max;
+    }
+}
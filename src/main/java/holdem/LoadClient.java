@@ -0,0 +1,112 @@
+package holdem;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Load test client for --serve with text output: each of the concurrent clients sends deals from an input file one
+// at a time over its own connection and waits for the response line, recording the round trip latency.
+// Usage: java -cp texas-holdem-1.0-SNAPSHOT.jar holdem.LoadClient --port <port> [--clients <n>] [--deals <n>]
+// [--input <file>], with the number of deals per client.
+public final class LoadClient {
+    private static final String PORT_PARAMETER = "--port";
+    private static final String CLIENTS_PARAMETER = "--clients";
+    private static final String DEALS_PARAMETER = "--deals";
+    private static final String INPUT_FILE_PARAMETER = "--input";
+    private static final int DEFAULT_CLIENTS = 8;
+    private static final int DEFAULT_DEALS = 10_000;
+    private static final String DEFAULT_INPUT_FILE = "inputs/input25k";
+
+    private LoadClient() {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException, ExecutionException {
+        List<String> arguments = Arrays.asList(args);
+        int port = Integer.parseInt(getParameterValue(arguments, PORT_PARAMETER, null));
+        int numberOfClients = Integer.parseInt(getParameterValue(arguments, CLIENTS_PARAMETER,
+                String.valueOf(DEFAULT_CLIENTS)));
+        int dealsPerClient = Integer.parseInt(getParameterValue(arguments, DEALS_PARAMETER,
+                String.valueOf(DEFAULT_DEALS)));
+        List<String> deals = Files.readAllLines(Paths.get(getParameterValue(arguments, INPUT_FILE_PARAMETER,
+                DEFAULT_INPUT_FILE)), Charset.defaultCharset());
+        InetSocketAddress address = new InetSocketAddress(InetAddress.getLoopbackAddress(), port);
+
+        ExecutorService clients = Executors.newFixedThreadPool(numberOfClients);
+        long start = System.nanoTime();
+        List<Future<LatencyHistogram>> clientLatencies = new ArrayList<>();
+        for (int i = 0; i < numberOfClients; i++) {
+            int firstDeal = i * dealsPerClient;
+            clientLatencies.add(clients.submit(() -> runClient(address, deals, firstDeal, dealsPerClient)));
+        }
+        LatencyHistogram latencies = new LatencyHistogram();
+        for (Future<LatencyHistogram> clientLatency : clientLatencies) {
+            latencies.add(clientLatency.get());
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        clients.shutdown();
+        System.out.println(String.format(Locale.ROOT,
+                "%d clients, %d deals in %.3f s, %.1f deals/s, latency p50 %d us, p99 %d us, p99.9 %d us, max %d us",
+                numberOfClients, latencies.getCount(), seconds, latencies.getCount() / seconds,
+                latencies.getValueAtPercentile(50) / 1000, latencies.getValueAtPercentile(99) / 1000,
+                latencies.getValueAtPercentile(99.9) / 1000, latencies.getMax() / 1000));
+    }
+
+    private static String getParameterValue(List<String> arguments, String parameter, String defaultValue) {
+        int parameterIndex = arguments.indexOf(parameter);
+        if (parameterIndex < 0) {
+            if (defaultValue == null) {
+                throw new IllegalArgumentException("Missing parameter " + parameter);
+            }
+            return defaultValue;
+        }
+        if (parameterIndex + 1 >= arguments.size()) {
+            throw new IllegalArgumentException("Missing value for " + parameter);
+        }
+        return arguments.get(parameterIndex + 1);
+    }
+
+    private static LatencyHistogram runClient(InetSocketAddress address, List<String> deals, int firstDeal,
+            int numberOfDeals) throws IOException {
+        LatencyHistogram latencies = new LatencyHistogram();
+        ByteBuffer response = ByteBuffer.allocate(1 << 16);
+        try (SocketChannel channel = SocketChannel.open(address)) {
+            channel.socket().setTcpNoDelay(true);
+            for (int i = 0; i < numberOfDeals; i++) {
+                ByteBuffer request = ByteBuffer.wrap((deals.get((firstDeal + i) % deals.size()) + "\n")
+                        .getBytes(Charset.defaultCharset()));
+                long start = System.nanoTime();
+                OutputBuffer.write(channel, request);
+                readLine(channel, response);
+                latencies.record(System.nanoTime() - start);
+            }
+        }
+        return latencies;
+    }
+
+    // reads until the response line has ended
+    private static void readLine(SocketChannel channel, ByteBuffer response) throws IOException {
+        ((Buffer) response).clear();
+        while (response.position() == 0 || response.get(response.position() - 1) != '\n') {
+            if (!response.hasRemaining()) {
+                ((Buffer) response).clear(); // only the end of the line matters
+            }
+            if (channel.read(response) < 0) {
+                throw new IOException("Connection closed by the server");
+            }
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package holdem;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+// Evaluates exactly 7 cards with two table lookups: ranks are summed into a perfect hash key (see
+// LookupTableGenerator.RANK_WEIGHTS) and flushes are looked up by the rank bitmask of the flush suit.
+// The table is memory-mapped from the resource generated during the build, so it lives off heap.
+public final class LookupTableEvaluator implements HandStrengthEvaluator {
+    static final String TABLE_RESOURCE = "lookup-table.bin";
+    private static final int SUIT_BITS = 4;
+    private static final int FLUSH_CHECK_OFFSET = 0x3333; // pushes suit counts of 5 or more into the top nibble bit
+    private static final int FLUSH_CHECK_MASK = 0x8888;
+    private static final long[] CARD_KEYS = new long[52];
+
+    static {
+        for (int card = 0; card < CARD_KEYS.length; card++) {
+            int rank = card >>> 2;
+            int suit = card & 3;
+            CARD_KEYS[card] = (long) LookupTableGenerator.RANK_WEIGHTS[rank] << Integer.SIZE | 1L << suit * SUIT_BITS;
+        }
+    }
+
+    private final int[] strengths;
+    private final ShortBuffer tableShorts;
+    private final int flushTableOffset;
+    private final int rankTableOffset;
+
+    private LookupTableEvaluator(ByteBuffer table) {
+        table.order(ByteOrder.LITTLE_ENDIAN);
+        if (table.getInt(0) != LookupTableGenerator.MAGIC || table.getInt(4) != LookupTableGenerator.VERSION) {
+            throw new IllegalStateException("Unsupported lookup table format");
+        }
+        strengths = new int[table.getInt(8)];
+        int flushTableSize = table.getInt(12);
+        for (int i = 0; i < strengths.length; i++) {
+            strengths[i] = table.getInt(LookupTableGenerator.HEADER_BYTES + i * Integer.BYTES);
+        }
+        tableShorts = table.asShortBuffer();
+        flushTableOffset = (LookupTableGenerator.HEADER_BYTES + strengths.length * Integer.BYTES) / Short.BYTES;
+        rankTableOffset = flushTableOffset + flushTableSize;
+    }
+
+    public static LookupTableEvaluator getInstance() {
+        return InstanceHolder.INSTANCE;
+    }
+
+    @Override
+    public int evaluate(int[] cards) {
+        long key = 0;
+        for (int card : cards) {
+            key += CARD_KEYS[card];
+        }
+        int flushCheck = ((int) key + FLUSH_CHECK_OFFSET) & FLUSH_CHECK_MASK;
+        if (flushCheck == 0) {
+            return strengths[tableShorts.get(rankTableOffset + (int) (key >>> Integer.SIZE))];
+        }
+        int flushSuit = Integer.numberOfTrailingZeros(flushCheck) / SUIT_BITS;
+        int rankMask = 0;
+        for (int card : cards) {
+            if ((card & 3) == flushSuit) {
+                rankMask |= 1 << (card >>> 2);
+            }
+        }
+        return strengths[tableShorts.get(flushTableOffset + rankMask)];
+    }
+
+    @Override
+    public int evaluate(BoardContext board, int holeCard1, int holeCard2) {
+        long key = board.getCardKeys() + CARD_KEYS[holeCard1] + CARD_KEYS[holeCard2];
+        int flushCheck = ((int) key + FLUSH_CHECK_OFFSET) & FLUSH_CHECK_MASK;
+        if (flushCheck == 0) {
+            return strengths[tableShorts.get(rankTableOffset + (int) (key >>> Integer.SIZE))];
+        }
+        int flushSuit = Integer.numberOfTrailingZeros(flushCheck) / SUIT_BITS;
+        int rankMask = board.getSuitRankMask(flushSuit);
+        if ((holeCard1 & 3) == flushSuit) {
+            rankMask |= 1 << (holeCard1 >>> 2);
+        }
+        if ((holeCard2 & 3) == flushSuit) {
+            rankMask |= 1 << (holeCard2 >>> 2);
+        }
+        return strengths[tableShorts.get(flushTableOffset + rankMask)];
+    }
+
+    // 7 cards given by the sum of their card keys and their suit masks as in BoardContext, without branches on the
+    // cards themselves
+    int evaluate(long cardKeys, long suitMasks) {
+        int flushCheck = ((int) cardKeys + FLUSH_CHECK_OFFSET) & FLUSH_CHECK_MASK;
+        if (flushCheck == 0) {
+            return strengths[tableShorts.get(rankTableOffset + (int) (cardKeys >>> Integer.SIZE))];
+        }
+        int flushSuit = Integer.numberOfTrailingZeros(flushCheck) / SUIT_BITS;
+        int rankMask = (int) (suitMasks >>> flushSuit * BoardContext.SUIT_MASK_BITS) & BoardContext.RANK_MASK;
+        return strengths[tableShorts.get(flushTableOffset + rankMask)];
+    }
+
+    static long getCardKey(int card) {
+        return CARD_KEYS[card];
+    }
+
+    private static ByteBuffer loadTable() {
+        URL resource = LookupTableEvaluator.class.getResource(TABLE_RESOURCE);
+        if (resource == null) { // e.g. classes compiled without running the build's table generation step
+            return LookupTableGenerator.generate();
+        }
+        try {
+            if ("file".equals(resource.getProtocol())) {
+                return map(Paths.get(resource.toURI()));
+            }
+            Path extractedTable = Files.createTempFile("holdem-", "-" + TABLE_RESOURCE);
+            extractedTable.toFile().deleteOnExit();
+            try (InputStream input = resource.openStream()) {
+                Files.copy(input, extractedTable, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return map(extractedTable);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static ByteBuffer map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    private static final class InstanceHolder {
+        private static final LookupTableEvaluator INSTANCE = new LookupTableEvaluator(loadTable());
+    }
+}
@@ -0,0 +1,178 @@
+package holdem;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.TreeSet;
+
+// Generates the binary table used by LookupTableEvaluator, run during the build with the output file as argument
+public final class LookupTableGenerator {
+    static final int MAGIC = 0x484F4C54;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 5 * Integer.BYTES;
+    static final int NUMBER_OF_RANKS = 13;
+    static final int NUMBER_OF_CARDS = 7;
+    static final int FLUSH_TABLE_SIZE = 1 << NUMBER_OF_RANKS;
+    // any multiset of 7 ranks (at most 4 of each) has a unique sum of these weights
+    static final int[] RANK_WEIGHTS = { 0, 1, 5, 22, 98, 453, 2031, 8698, 22854, 83661, 262349, 636345, 1479181 };
+    static final int RANK_TABLE_SIZE = 4 * RANK_WEIGHTS[12] + 3 * RANK_WEIGHTS[11] + 1;
+
+    private static final int WHEEL_MASK = 0x100F; // A, 2, 3, 4, 5
+    private static final int STRAIGHT_MASK = 0x1F;
+
+    private LookupTableGenerator() {
+    }
+
+    public static ByteBuffer generate() {
+        int[] rankTableStrengths = new int[RANK_TABLE_SIZE];
+        int[] flushTableStrengths = new int[FLUSH_TABLE_SIZE];
+        TreeSet<Integer> distinctStrengths = new TreeSet<>();
+        populateRankTable(new int[NUMBER_OF_RANKS], 0, NUMBER_OF_CARDS, rankTableStrengths, distinctStrengths);
+        for (int rankMask = 0; rankMask < FLUSH_TABLE_SIZE; rankMask++) {
+            if (Integer.bitCount(rankMask) >= 5) {
+                flushTableStrengths[rankMask] = evaluateFlush(rankMask);
+                distinctStrengths.add(flushTableStrengths[rankMask]);
+            }
+        }
+        int[] strengths = distinctStrengths.stream().mapToInt(Integer::intValue).toArray();
+
+        int size = HEADER_BYTES + strengths.length * Integer.BYTES + (FLUSH_TABLE_SIZE + RANK_TABLE_SIZE) * Short.BYTES;
+        ByteBuffer table = ByteBuffer.allocateDirect(size).order(ByteOrder.LITTLE_ENDIAN);
+        ByteBuffer writer = table.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        writer.putInt(MAGIC).putInt(VERSION).putInt(strengths.length).putInt(FLUSH_TABLE_SIZE).putInt(RANK_TABLE_SIZE);
+        for (int strength : strengths) {
+            writer.putInt(strength);
+        }
+        putStrengthClasses(writer, flushTableStrengths, strengths);
+        putStrengthClasses(writer, rankTableStrengths, strengths);
+        return table;
+    }
+
+    private static void populateRankTable(int[] rankCounts, int rank, int cardsLeft, int[] rankTableStrengths,
+            TreeSet<Integer> distinctStrengths) {
+        if (rank == NUMBER_OF_RANKS) {
+            if (cardsLeft == 0) {
+                int key = 0;
+                for (int i = 0; i < NUMBER_OF_RANKS; i++) {
+                    key += rankCounts[i] * RANK_WEIGHTS[i];
+                }
+                if (rankTableStrengths[key] != 0) {
+                    throw new IllegalStateException("Rank weights are not unique for " + Arrays.toString(rankCounts));
+                }
+                rankTableStrengths[key] = evaluateRankCounts(rankCounts);
+                distinctStrengths.add(rankTableStrengths[key]);
+            }
+            return;
+        }
+        for (int count = 0; count <= Math.min(4, cardsLeft); count++) {
+            rankCounts[rank] = count;
+            populateRankTable(rankCounts, rank + 1, cardsLeft - count, rankTableStrengths, distinctStrengths);
+        }
+        rankCounts[rank] = 0;
+    }
+
+    private static void putStrengthClasses(ByteBuffer table, int[] tableStrengths, int[] strengths) {
+        for (int strength : tableStrengths) {
+            int strengthClass = strength == 0 ? 0 : Arrays.binarySearch(strengths, strength);
+            table.putShort((short) strengthClass);
+        }
+    }
+
+    static int evaluateFlush(int rankMask) {
+        int straightTopRank = getStraightTopRank(rankMask);
+        if (straightTopRank >= 0) {
+            return HandStrength.of(HandRanking.STRAIGHT_FLUSH, straightTopRank);
+        }
+        return HandStrength.of(HandRanking.FLUSH, getHighestRanks(rankMask, 5));
+    }
+
+    static int evaluateRankCounts(int[] rankCounts) {
+        int rankMask = 0;
+        int fourOfAKindRank = -1;
+        int threeOfAKindRank = -1;
+        int secondThreeOfAKindRank = -1;
+        int pairRank = -1;
+        int secondPairRank = -1;
+        for (int rank = NUMBER_OF_RANKS - 1; rank >= 0; rank--) {
+            int count = rankCounts[rank];
+            if (count > 0) {
+                rankMask |= 1 << rank;
+            }
+            if (count == 4) {
+                fourOfAKindRank = rank;
+            } else if (count == 3 && threeOfAKindRank < 0) {
+                threeOfAKindRank = rank;
+            } else if (count == 3 && secondThreeOfAKindRank < 0) {
+                secondThreeOfAKindRank = rank;
+            } else if (count == 2 && pairRank < 0) {
+                pairRank = rank;
+            } else if (count == 2 && secondPairRank < 0) {
+                secondPairRank = rank;
+            }
+        }
+
+        if (fourOfAKindRank >= 0) {
+            return HandStrength.of(HandRanking.FOUR_OF_A_KIND, fourOfAKindRank,
+                    getHighestRanks(rankMask & ~(1 << fourOfAKindRank), 1)[0]);
+        }
+        int fullHousePairRank = Math.max(secondThreeOfAKindRank, pairRank);
+        if (threeOfAKindRank >= 0 && fullHousePairRank >= 0) {
+            return HandStrength.of(HandRanking.FULL_HOUSE, threeOfAKindRank, fullHousePairRank);
+        }
+        int straightTopRank = getStraightTopRank(rankMask);
+        if (straightTopRank >= 0) {
+            return HandStrength.of(HandRanking.STRAIGHT, straightTopRank);
+        }
+        if (threeOfAKindRank >= 0) {
+            int[] kickers = getHighestRanks(rankMask & ~(1 << threeOfAKindRank), 2);
+            return HandStrength.of(HandRanking.THREE_OF_A_KIND, threeOfAKindRank, kickers[0], kickers[1]);
+        }
+        if (secondPairRank >= 0) {
+            int kicker = getHighestRanks(rankMask & ~(1 << pairRank) & ~(1 << secondPairRank), 1)[0];
+            return HandStrength.of(HandRanking.TWO_PAIRS, pairRank, secondPairRank, kicker);
+        }
+        if (pairRank >= 0) {
+            int[] kickers = getHighestRanks(rankMask & ~(1 << pairRank), 3);
+            return HandStrength.of(HandRanking.PAIR, pairRank, kickers[0], kickers[1], kickers[2]);
+        }
+        return HandStrength.of(HandRanking.HIGH_CARD, getHighestRanks(rankMask, 5));
+    }
+
+    private static int getStraightTopRank(int rankMask) {
+        for (int topRank = NUMBER_OF_RANKS - 1; topRank >= 4; topRank--) {
+            int straightMask = STRAIGHT_MASK << (topRank - 4);
+            if ((rankMask & straightMask) == straightMask) {
+                return topRank;
+            }
+        }
+        return (rankMask & WHEEL_MASK) == WHEEL_MASK ? 3 : -1;
+    }
+
+    private static int[] getHighestRanks(int rankMask, int numberOfRanks) {
+        int[] result = new int[numberOfRanks];
+        int remainingMask = rankMask;
+        for (int i = 0; i < numberOfRanks; i++) {
+            result[i] = 31 - Integer.numberOfLeadingZeros(remainingMask);
+            remainingMask &= ~(1 << result[i]);
+        }
+        return result;
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path output = Paths.get(args[0]);
+        Files.createDirectories(output.toAbsolutePath().getParent());
+        ByteBuffer table = generate();
+        try (FileChannel channel = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (table.hasRemaining()) {
+                channel.write(table);
+            }
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package holdem;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+// Merges the metrics of all App instances, exposes them as the MXBeans holdem:type=Processing and
+// holdem:type=StageLatency,name=<stage>, and prints a summary to stderr periodically and when stopped.
+public final class MetricsReporter implements ProcessingMetricsMXBean {
+    private static final String DOMAIN = "holdem";
+
+    private final ConcurrentLinkedQueue<DealMetrics> recorders = new ConcurrentLinkedQueue<>();
+    private final List<ObjectName> registeredNames = new ArrayList<>();
+    private final long startNanos = System.nanoTime();
+    private ScheduledExecutorService scheduler;
+
+    // for the thread that is going to use it
+    public DealMetrics newRecorder() {
+        DealMetrics recorder = new DealMetrics();
+        recorders.add(recorder);
+        return recorder;
+    }
+
+    public void start(long summaryIntervalSeconds) {
+        try {
+            register(new ObjectName(DOMAIN + ":type=Processing"), this);
+            for (DealMetrics.Stage stage : DealMetrics.Stage.values()) {
+                register(new ObjectName(DOMAIN + ":type=StageLatency,name=" + stage), new StageLatency(stage));
+            }
+        } catch (JMException e) {
+            throw new IllegalStateException(e);
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "metrics-reporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(() -> System.err.print(getSummary()), summaryIntervalSeconds,
+                summaryIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    public void stop() {
+        scheduler.shutdownNow();
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for (ObjectName name : registeredNames) {
+            try {
+                server.unregisterMBean(name);
+            } catch (JMException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        registeredNames.clear();
+        System.err.print(getSummary());
+    }
+
+    private void register(ObjectName name, Object bean) throws JMException {
+        ManagementFactory.getPlatformMBeanServer().registerMBean(bean, name);
+        registeredNames.add(name);
+    }
+
+    public LatencyHistogram getHistogram(DealMetrics.Stage stage) {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (DealMetrics recorder : recorders) {
+            histogram.add(recorder.getHistogram(stage));
+        }
+        return histogram;
+    }
+
+    @Override
+    public long getDealCount() {
+        return recorders.stream().mapToLong(DealMetrics::getDeals).sum();
+    }
+
+    @Override
+    public double getDealsPerSecond() {
+        return getDealCount() * 1e9 / Math.max(1, System.nanoTime() - startNanos);
+    }
+
+    @Override
+    public long getErrorCount() {
+        return getErrorCounts().values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    @Override
+    public Map<String, Long> getErrorCounts() {
+        Map<String, Long> errorCounts = new TreeMap<>();
+        for (DealMetrics recorder : recorders) {
+            recorder.getErrorCounts().forEach((cause, count) -> errorCounts.merge(cause, count, Long::sum));
+        }
+        return errorCounts;
+    }
+
+    @Override
+    public long getAllocatedBytesPerDeal() {
+        if (DealMetrics.getAllocatedBytes(Thread.currentThread().getId()) < 0) {
+            return -1;
+        }
+        long allocatedBytes = recorders.stream().mapToLong(DealMetrics::getAllocatedBytes).sum();
+        long deals = recorders.stream().mapToLong(DealMetrics::getDealsAtAllocationSample).sum();
+        return deals == 0 ? 0 : allocatedBytes / deals;
+    }
+
+    public String getSummary() {
+        StringBuilder summary = new StringBuilder();
+        summary.append(String.format(Locale.ROOT, "Deals: %d (%.1f/s), errors: %d %s, allocated bytes/deal: %d%n",
+                getDealCount(), getDealsPerSecond(), getErrorCount(), getErrorCounts(), getAllocatedBytesPerDeal()));
+        for (DealMetrics.Stage stage : DealMetrics.Stage.values()) {
+            LatencyHistogram histogram = getHistogram(stage);
+            summary.append(String.format(Locale.ROOT, "  %-8s count %d, p50 %d ns, p99 %d ns, p99.9 %d ns, max %d ns%n",
+                    stage, histogram.getCount(), histogram.getValueAtPercentile(50),
+                    histogram.getValueAtPercentile(99), histogram.getValueAtPercentile(99.9), histogram.getMax()));
+        }
+        return summary.toString();
+    }
+
+    public final class StageLatency implements StageLatencyMXBean {
+        private final DealMetrics.Stage stage;
+
+        private StageLatency(DealMetrics.Stage stage) {
+            this.stage = stage;
+        }
+
+        @Override
+        public long getCount() {
+            return getHistogram(stage).getCount();
+        }
+
+        @Override
+        public long getP50Nanos() {
+            return getHistogram(stage).getValueAtPercentile(50);
+        }
+
+        @Override
+        public long getP99Nanos() {
+            return getHistogram(stage).getValueAtPercentile(99);
+        }
+
+        @Override
+        public long getP999Nanos() {
+            return getHistogram(stage).getValueAtPercentile(99.9);
+        }
+
+        @Override
+        public long getMaxNanos() {
+            return getHistogram(stage).getMax();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package holdem;
+
+// Evaluates Omaha hands on one board: the best 5 card hand using exactly 2 of the 4 hole cards and 3 of the 5
+// board cards. The 10 board triples are prepared once per deal and each of the 60 combinations is evaluated with
+// the 5 card bitmask path, checking for a flush only when both the triple and the hole card pair are suited in the
+// same suit, and for a straight only when the triple fits into a straight window.
+public final class OmahaEvaluator {
+    private static final int NUMBER_OF_BOARD_TRIPLES = 10;
+    private static final int STRAIGHT_WINDOW = 0x1F;
+
+    private final long[] tripleSuitMasks = new long[NUMBER_OF_BOARD_TRIPLES];
+    private final long[] tripleRankCounts = new long[NUMBER_OF_BOARD_TRIPLES];
+    private final int[] tripleFlushSuits = new int[NUMBER_OF_BOARD_TRIPLES]; // -1 unless all 3 cards are suited
+    private final boolean[] tripleStraightPossible = new boolean[NUMBER_OF_BOARD_TRIPLES];
+
+    public OmahaEvaluator(int[] boardCards) {
+        int triple = 0;
+        for (int i = 0; i < boardCards.length; i++) {
+            for (int j = i + 1; j < boardCards.length; j++) {
+                for (int k = j + 1; k < boardCards.length; k++) {
+                    prepareTriple(triple++, boardCards[i], boardCards[j], boardCards[k]);
+                }
+            }
+        }
+    }
+
+    public static OmahaEvaluator of(Card[] boardCards) {
+        int[] cardIndices = new int[boardCards.length];
+        for (int i = 0; i < boardCards.length; i++) {
+            cardIndices[i] = boardCards[i].getIndex();
+        }
+        return new OmahaEvaluator(cardIndices);
+    }
+
+    private void prepareTriple(int triple, int card1, int card2, int card3) {
+        long suitMasks = BoardContext.addToSuitMasks(0, card1);
+        suitMasks = BoardContext.addToSuitMasks(suitMasks, card2);
+        tripleSuitMasks[triple] = BoardContext.addToSuitMasks(suitMasks, card3);
+        long rankCounts = BoardContext.addToRankCounts(0, card1);
+        rankCounts = BoardContext.addToRankCounts(rankCounts, card2);
+        tripleRankCounts[triple] = BoardContext.addToRankCounts(rankCounts, card3);
+        boolean suited = (card1 & 3) == (card2 & 3) && (card2 & 3) == (card3 & 3);
+        tripleFlushSuits[triple] = suited ? card1 & 3 : -1;
+        int rankMask = (int) tripleRankCounts[triple] & BoardContext.RANK_MASK;
+        int withLowAce = rankMask << 1 | rankMask >>> 12;
+        for (int windowStart = 0; windowStart <= 9; windowStart++) {
+            if (Integer.bitCount(withLowAce >>> windowStart & STRAIGHT_WINDOW) == 3) {
+                tripleStraightPossible[triple] = true;
+            }
+        }
+    }
+
+    public int evaluate(int[] holeCards) {
+        int bestStrength = 0;
+        for (int i = 0; i < holeCards.length; i++) {
+            for (int j = i + 1; j < holeCards.length; j++) {
+                bestStrength = Math.max(bestStrength, evaluatePair(holeCards[i], holeCards[j]));
+            }
+        }
+        return bestStrength;
+    }
+
+    private int evaluatePair(int holeCard1, int holeCard2) {
+        int pairFlushSuit = (holeCard1 & 3) == (holeCard2 & 3) ? holeCard1 & 3 : -2;
+        int bestStrength = 0;
+        for (int triple = 0; triple < NUMBER_OF_BOARD_TRIPLES; triple++) {
+            int flushSuit = tripleFlushSuits[triple] == pairFlushSuit ? pairFlushSuit : -1;
+            long suitMasks = BoardContext.addToSuitMasks(tripleSuitMasks[triple], holeCard1);
+            suitMasks = BoardContext.addToSuitMasks(suitMasks, holeCard2);
+            long rankCounts = BoardContext.addToRankCounts(tripleRankCounts[triple], holeCard1);
+            rankCounts = BoardContext.addToRankCounts(rankCounts, holeCard2);
+            int strength = BitmaskEvaluator.evaluate(suitMasks, rankCounts, flushSuit, flushSuit,
+                    tripleStraightPossible[triple]);
+            bestStrength = Math.max(bestStrength, strength);
+        }
+        return bestStrength;
+    }
+}
@@ -0,0 +1,120 @@
+package holdem;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+// A growable byte buffer that output is formatted into and written from to a channel, many deals at a time.
+// Once it is large enough, formatting and writing allocate nothing.
+public final class OutputBuffer {
+    private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(Charset.defaultCharset());
+
+    private byte[] bytes;
+    private int size;
+    private ByteBuffer wrapper; // of bytes, for writing to channels
+
+    public OutputBuffer(int initialCapacity) {
+        bytes = new byte[initialCapacity];
+    }
+
+    private void ensureCapacity(int additionalBytes) {
+        if (size + additionalBytes > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(2 * bytes.length, size + additionalBytes));
+        }
+    }
+
+    public void put(byte b) {
+        ensureCapacity(1);
+        bytes[size++] = b;
+    }
+
+    public void put(byte[] source) {
+        ensureCapacity(source.length);
+        System.arraycopy(source, 0, bytes, size, source.length);
+        size += source.length;
+    }
+
+    // the string must only contain ASCII characters
+    public void putAscii(String string) {
+        int length = string.length();
+        ensureCapacity(length);
+        for (int i = 0; i < length; i++) {
+            bytes[size + i] = (byte) string.charAt(i);
+        }
+        size += length;
+    }
+
+    // encoded with the default charset, like System.out does
+    public void putString(String string) {
+        put(string.getBytes(Charset.defaultCharset()));
+    }
+
+    public void putLineSeparator() {
+        put(LINE_SEPARATOR);
+    }
+
+    // the digits are written from the last one, like Long.toString() does but without a string
+    public void putDecimal(long value) {
+        if (value == Long.MIN_VALUE) {
+            putAscii(Long.toString(value));
+            return;
+        }
+        if (value < 0) {
+            put((byte) '-');
+        }
+        long remaining = Math.abs(value);
+        int digits = 1;
+        for (long limit = 10; digits < 19 && remaining >= limit; limit *= 10) {
+            digits++;
+        }
+        ensureCapacity(digits);
+        for (int i = size + digits - 1; i >= size; i--) {
+            bytes[i] = (byte) ('0' + remaining % 10);
+            remaining /= 10;
+        }
+        size += digits;
+    }
+
+    // unsigned LEB128: 7 bits per byte, least significant first, high bit set on all but the last byte
+    public void putVarint(long value) {
+        ensureCapacity(10);
+        long remaining = value;
+        while ((remaining & ~0x7FL) != 0) {
+            bytes[size++] = (byte) (remaining & 0x7F | 0x80);
+            remaining >>>= 7;
+        }
+        bytes[size++] = (byte) remaining;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(bytes, size);
+    }
+
+    // writes and clears the buffered output
+    public void writeTo(WritableByteChannel channel) throws IOException {
+        if (wrapper == null || wrapper.array() != bytes) {
+            wrapper = ByteBuffer.wrap(bytes);
+        }
+        ((Buffer) wrapper).clear();
+        ((Buffer) wrapper).limit(size);
+        write(channel, wrapper);
+        size = 0;
+    }
+
+    public static void write(WritableByteChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
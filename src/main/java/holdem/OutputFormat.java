@@ -0,0 +1,31 @@
+package holdem;
+
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+public enum OutputFormat {
+    TEXT("text", TextDealFormatter::new), BINARY("binary", BinaryDealFormatter::new),
+    NDJSON("ndjson", JsonDealFormatter::new);
+
+    private String stringValue;
+    private Supplier<DealFormatter> formatterSupplier;
+
+    OutputFormat(String stringValue, Supplier<DealFormatter> formatterSupplier) {
+        this.stringValue = stringValue;
+        this.formatterSupplier = formatterSupplier;
+    }
+
+    public static OutputFormat fromString(String formatString) {
+        return Stream.of(values()).filter(x -> x.stringValue.equals(formatString)).findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown output format: " + formatString));
+    }
+
+    public DealFormatter newFormatter() {
+        return formatterSupplier.get();
+    }
+
+    @Override
+    public String toString() {
+        return stringValue;
+    }
+}
@@ -0,0 +1,185 @@
+package holdem;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// Processes deals in three stages: a reader thread splits the input into chunks of lines (or blocks of the binary
+// deal format), a pool of workers evaluates the chunks and the calling thread writes their output in input order.
+// The queue of chunks in flight is bounded, so memory use does not grow with the input.
+public final class ParallelDealProcessor {
+    private static final int LINES_PER_CHUNK = 2048;
+    private static final int CHUNKS_IN_FLIGHT_PER_THREAD = 4;
+    private static final Future<byte[]> END_OF_INPUT = CompletableFuture.completedFuture(null);
+
+    private final int numberOfThreads;
+    private final ThreadLocal<App> workerApp;
+    private final WritableByteChannel output;
+
+    // each worker thread processes deals with its own App from the factory
+    public ParallelDealProcessor(int numberOfThreads, Supplier<App> appFactory, WritableByteChannel output) {
+        if (numberOfThreads < 1) {
+            throw new IllegalArgumentException("Invalid number of threads: " + numberOfThreads);
+        }
+        this.numberOfThreads = numberOfThreads;
+        this.workerApp = ThreadLocal.withInitial(appFactory);
+        this.output = output;
+    }
+
+    @FunctionalInterface
+    private interface ChunkReader {
+        // reads the input and passes the processing of each chunk of it to the submitter, in input order
+        void read(Consumer<Function<App, byte[]>> submitter) throws IOException;
+    }
+
+    public void process(ReadableByteChannel channel) throws IOException {
+        process(submitter -> readLines(handler -> DealLineReader.read(channel, handler), submitter));
+    }
+
+    public void process(Path file) throws IOException {
+        process(submitter -> readLines(handler -> DealLineReader.read(file, handler), submitter));
+    }
+
+    // blocks of the binary deal format are processed as chunks, without copying them
+    public void processBinary(Path file, GameType gameType) throws IOException {
+        process(submitter -> BinaryDealReader.read(file, gameType,
+                block -> submitter.accept(app -> app.processBinaryBlockOutput(block))));
+    }
+
+    @FunctionalInterface
+    private interface LineReader {
+        void read(DealLineReader.LineHandler handler) throws IOException;
+    }
+
+    private void readLines(LineReader lineReader, Consumer<Function<App, byte[]>> submitter) throws IOException {
+        ChunkingLineHandler chunkingHandler = new ChunkingLineHandler(submitter);
+        lineReader.read(chunkingHandler);
+        chunkingHandler.submitChunk();
+    }
+
+    private void process(ChunkReader chunkReader) throws IOException {
+        ExecutorService workers = Executors.newFixedThreadPool(numberOfThreads);
+        BlockingQueue<Future<byte[]>> chunkOutputs = new ArrayBlockingQueue<>(
+                CHUNKS_IN_FLIGHT_PER_THREAD * numberOfThreads);
+        Thread reader = new Thread(() -> readChunks(chunkReader, workers, chunkOutputs), "deal-reader");
+        reader.setDaemon(true);
+        reader.start();
+        try {
+            Future<byte[]> chunkOutput = chunkOutputs.take();
+            while (chunkOutput != END_OF_INPUT) {
+                OutputBuffer.write(output, ByteBuffer.wrap(chunkOutput.get()));
+                chunkOutput = chunkOutputs.take();
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    private void readChunks(ChunkReader chunkReader, ExecutorService workers,
+            BlockingQueue<Future<byte[]>> chunkOutputs) {
+        try {
+            chunkReader.read(chunk -> put(chunkOutputs, workers.submit(() -> chunk.apply(workerApp.get()))));
+        } catch (IOException | RuntimeException e) {
+            CompletableFuture<byte[]> failure = new CompletableFuture<>();
+            failure.completeExceptionally(e);
+            put(chunkOutputs, failure);
+        }
+        put(chunkOutputs, END_OF_INPUT);
+    }
+
+    private static void put(BlockingQueue<Future<byte[]>> queue, Future<byte[]> future) {
+        try {
+            queue.put(future);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class ChunkingLineHandler implements DealLineReader.LineHandler {
+        private final Consumer<Function<App, byte[]>> submitter;
+        private DealChunk chunk = new DealChunk(0);
+        private long numberOfLines;
+
+        private ChunkingLineHandler(Consumer<Function<App, byte[]>> submitter) {
+            this.submitter = submitter;
+        }
+
+        @Override
+        public void handleLine(ByteBuffer input, int start, int end) {
+            chunk.addLine(input, start, end);
+            numberOfLines++;
+            if (chunk.numberOfLines == LINES_PER_CHUNK) {
+                submitChunk();
+            }
+        }
+
+        private void submitChunk() {
+            if (chunk.numberOfLines > 0) {
+                DealChunk fullChunk = chunk;
+                submitter.accept(app -> app.processChunk(fullChunk));
+                chunk = new DealChunk(numberOfLines);
+            }
+        }
+    }
+
+    // a copy of consecutive input lines, line i is between lineEnds[i - 1] (or 0) and lineEnds[i]
+    static final class DealChunk {
+        private final long firstLineIndex;
+        private byte[] data = new byte[LINES_PER_CHUNK * 64];
+        private final int[] lineEnds = new int[LINES_PER_CHUNK];
+        private int numberOfLines;
+        private int size;
+
+        private DealChunk(long firstLineIndex) {
+            this.firstLineIndex = firstLineIndex;
+        }
+
+        // index of the first line of the chunk in the whole input
+        long getFirstLineIndex() {
+            return firstLineIndex;
+        }
+
+        private void addLine(ByteBuffer input, int start, int end) {
+            int length = end - start;
+            if (size + length > data.length) {
+                data = Arrays.copyOf(data, Math.max(2 * data.length, size + length));
+            }
+            for (int i = 0; i < length; i++) {
+                data[size + i] = input.get(start + i);
+            }
+            size += length;
+            lineEnds[numberOfLines++] = size;
+        }
+
+        void processLines(DealLineReader.LineHandler handler) {
+            ByteBuffer input = ByteBuffer.wrap(data);
+            int lineStart = 0;
+            for (int i = 0; i < numberOfLines; i++) {
+                handler.handleLine(input, lineStart, lineEnds[i]);
+                lineStart = lineEnds[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package holdem;
+
+import java.util.Arrays;
+
+// Settles the chips put in the pot by the players of a deal after the showdown. The distinct contributions of the
+// players still in the hand are the levels of the main pot and the side pots: each pot holds what every player put
+// in between the previous level and its own, and goes to the strongest hands among the players who reached its
+// level (found from the strongest end of the SortedDeal, so ties are its tie groups). A split pot is shared
+// equally and its odd chips go one each to the first winners in line order, as if the line started left of the
+// button. Chips of folded players above the last level go to the last pot. An App reuses one instance, so settling
+// works on primitive arrays and allocates nothing once they are large enough.
+public final class PotSettlement {
+    private long[] payouts = new long[16];
+    private long[] levels = new long[16];
+    private int[] handPlayers = new int[16]; // player of each hand
+    private int[] winners = new int[16];
+    private int numberOfPlayers;
+
+    // playerHands holds the index of each player's hand in the deal or DealParser.FOLDED; the deal must be sorted and
+    // have at least one hand
+    public void settle(long[] contributions, int[] playerHands, int players, SortedDeal sortedDeal) {
+        numberOfPlayers = players;
+        if (players > payouts.length) {
+            int capacity = Math.max(players, 2 * payouts.length);
+            payouts = new long[capacity];
+            levels = new long[capacity];
+            handPlayers = new int[capacity];
+            winners = new int[capacity];
+        }
+        Arrays.fill(payouts, 0, players, 0);
+        int numberOfLevels = 0;
+        for (int player = 0; player < players; player++) {
+            if (playerHands[player] != DealParser.FOLDED) {
+                handPlayers[playerHands[player]] = player;
+                numberOfLevels = addLevel(contributions[player], numberOfLevels);
+            }
+        }
+        long previousLevel = 0;
+        for (int level = 0; level < numberOfLevels; level++) {
+            long pot = 0;
+            for (int player = 0; player < players; player++) {
+                long contribution = contributions[player];
+                if (level == numberOfLevels - 1 && playerHands[player] == DealParser.FOLDED) {
+                    pot += Math.max(0, contribution - previousLevel);
+                } else {
+                    pot += Math.max(0, Math.min(contribution, levels[level]) - previousLevel);
+                }
+            }
+            awardPot(pot, levels[level], contributions, sortedDeal);
+            previousLevel = levels[level];
+        }
+    }
+
+    // keeps the levels sorted and distinct, there are as many as players at most
+    private int addLevel(long level, int numberOfLevels) {
+        int position = numberOfLevels;
+        while (position > 0 && levels[position - 1] > level) {
+            position--;
+        }
+        if (position > 0 && levels[position - 1] == level) {
+            return numberOfLevels;
+        }
+        System.arraycopy(levels, position, levels, position + 1, numberOfLevels - position);
+        levels[position] = level;
+        return numberOfLevels + 1;
+    }
+
+    // the winners are the strongest hands of players who put in at least the level
+    private void awardPot(long pot, long level, long[] contributions, SortedDeal sortedDeal) {
+        int numberOfWinners = 0;
+        for (int position = sortedDeal.size() - 1; position >= 0; position--) {
+            int player = handPlayers[sortedDeal.getHand(position).getIndex()];
+            if (contributions[player] >= level) {
+                winners[numberOfWinners++] = player;
+            }
+            if (numberOfWinners > 0 && !sortedDeal.isTiedWithPrevious(position)) {
+                break;
+            }
+        }
+        Arrays.sort(winners, 0, numberOfWinners);
+        long share = pot / numberOfWinners;
+        long oddChips = pot % numberOfWinners;
+        for (int i = 0; i < numberOfWinners; i++) {
+            payouts[winners[i]] += share + (i < oddChips ? 1 : 0);
+        }
+    }
+
+    public int getNumberOfPlayers() {
+        return numberOfPlayers;
+    }
+
+    // chips won by each player in line order
+    public long[] getPayouts() {
+        return payouts;
+    }
+}
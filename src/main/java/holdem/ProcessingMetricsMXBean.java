@@ -0,0 +1,16 @@
+package holdem;
+
+import java.util.Map;
+
+public interface ProcessingMetricsMXBean {
+    long getDealCount();
+
+    double getDealsPerSecond();
+
+    long getErrorCount();
+
+    Map<String, Long> getErrorCounts();
+
+    // -1 if the JVM does not measure thread allocation
+    long getAllocatedBytesPerDeal();
+}
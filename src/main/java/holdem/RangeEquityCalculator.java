@@ -0,0 +1,403 @@
+package holdem;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Calculates the equity of 2 to 6 Hold'em ranges against each other on a board of 0, 3, 4 or 5 cards: the average
+// share of the pot won by each range, split equally between tied hands, over the deals of one combination per range
+// and a runout that don't share cards. Such deals are equally likely, so combinations blocked by the board or by the
+// other ranges count less (card removal). Deals are enumerated when there are at most maxSamples of them, blocked
+// ones included, otherwise they are sampled in blocks with their own seeds, so that Monte Carlo results don't
+// depend on the number of threads. Results are kept in the optional EquityCache, keyed by the canonical ranges and
+// board, the number of samples and the seed. The threads are kept in a pool for the lifetime of the calculator, which
+// close() shuts down.
+public final class RangeEquityCalculator implements Closeable {
+    public static final int MIN_NUMBER_OF_RANGES = 2;
+    public static final int MAX_NUMBER_OF_RANGES = 6;
+    private static final int BOARD_SIZE = 5;
+    private static final int SAMPLES_PER_BLOCK = 1 << 16;
+    private static final long BLOCK_SEED_INCREMENT = 0xD1B54A32D192ED03L;
+    private static final long POT_SHARES = 60; // divisible by any number of tied ranges
+    private static final int MAX_REJECTED_DEALS = 1_000_000;
+    private static final String NO_DEALS_MESSAGE = "Ranges can't be dealt without sharing cards";
+
+    private final EvaluatorType evaluatorType;
+    private final int numberOfThreads;
+    private final long maxSamples;
+    private final long seed;
+    private final EquityCache cache; // null when results are not cached
+    private final ExecutorService executor;
+
+    public RangeEquityCalculator(EvaluatorType evaluatorType, int numberOfThreads, long maxSamples, long seed,
+            EquityCache cache) {
+        if (numberOfThreads < 1 || maxSamples < 1) {
+            throw new IllegalArgumentException("Invalid number of threads or samples");
+        }
+        this.evaluatorType = evaluatorType;
+        this.numberOfThreads = numberOfThreads;
+        this.maxSamples = maxSamples;
+        this.seed = seed;
+        this.cache = cache;
+        this.executor = Executors.newFixedThreadPool(numberOfThreads);
+    }
+
+    public static final class Result {
+        private final double[] values; // deals, 1 if exhaustive, then equity, win and tie percentages per range
+
+        private Result(double[] values) {
+            this.values = values;
+        }
+
+        private Result(Tally tally, boolean exhaustive) {
+            int numberOfRanges = tally.wins.length;
+            values = new double[2 + 3 * numberOfRanges];
+            values[0] = tally.deals;
+            values[1] = exhaustive ? 1 : 0;
+            for (int range = 0; range < numberOfRanges; range++) {
+                values[2 + 3 * range] = 100.0 * tally.potShares[range] / POT_SHARES / tally.deals;
+                values[3 + 3 * range] = 100.0 * tally.wins[range] / tally.deals;
+                values[4 + 3 * range] = 100.0 * tally.ties[range] / tally.deals;
+            }
+        }
+
+        public double getEquityPercentage(int range) {
+            return values[2 + 3 * range];
+        }
+
+        public double getWinPercentage(int range) {
+            return values[3 + 3 * range];
+        }
+
+        public double getTiePercentage(int range) {
+            return values[4 + 3 * range];
+        }
+
+        public long getDeals() {
+            return (long) values[0];
+        }
+
+        public boolean isExhaustive() {
+            return values[1] != 0;
+        }
+    }
+
+    // the board has 0 to 5 distinct cards
+    public Result calculate(int[] boardCards, List<HandRange> ranges) {
+        if (ranges.size() < MIN_NUMBER_OF_RANGES || ranges.size() > MAX_NUMBER_OF_RANGES) {
+            throw new IllegalArgumentException("Invalid number of ranges: " + ranges.size());
+        }
+        HandRange[] rangeArray = ranges.toArray(new HandRange[0]);
+        String key = cache == null ? null : getKey(boardCards, rangeArray);
+        double[] cachedValues = key == null ? null : cache.get(key);
+        if (cachedValues != null) {
+            return new Result(cachedValues);
+        }
+        boolean exhaustive = getNumberOfDeals(boardCards.length, rangeArray) <= maxSamples;
+        List<Callable<Tally>> tasks = new ArrayList<>();
+        for (int i = 0; i < numberOfThreads; i++) {
+            int workerIndex = i;
+            tasks.add(() -> {
+                Worker worker = new Worker(boardCards, rangeArray);
+                if (exhaustive) {
+                    worker.enumerate(workerIndex, numberOfThreads);
+                } else {
+                    long blocks = (maxSamples + SAMPLES_PER_BLOCK - 1) / SAMPLES_PER_BLOCK;
+                    for (long block = workerIndex; block < blocks; block += numberOfThreads) {
+                        worker.sample(getBlockRandom(seed, block),
+                                Math.min(SAMPLES_PER_BLOCK, maxSamples - block * SAMPLES_PER_BLOCK));
+                    }
+                }
+                return worker.tally;
+            });
+        }
+        Tally tally = new Tally(rangeArray.length);
+        for (Tally workerTally : invokeAll(tasks)) {
+            tally.add(workerTally);
+        }
+        if (tally.deals == 0) {
+            throw new RuntimeException(NO_DEALS_MESSAGE);
+        }
+        Result result = new Result(tally, exhaustive);
+        if (key != null) {
+            cache.put(key, result.values);
+        }
+        return result;
+    }
+
+    // heads-up preflop equity percentages of every starting hand class against every other one, the equity of class
+    // i against class j is at index i * NUMBER_OF_CLASSES + j (see StartingHands); each matchup gets maxSamples
+    public double[] calculatePreflopMatrix() {
+        int numberOfClasses = StartingHands.NUMBER_OF_CLASSES;
+        String key = cache == null ? null : "matrix;samples=" + maxSamples + ";seed=" + seed;
+        double[] cachedMatrix = key == null ? null : cache.get(key);
+        if (cachedMatrix != null) {
+            return cachedMatrix;
+        }
+        HandRange[] classRanges = new HandRange[numberOfClasses];
+        for (int i = 0; i < numberOfClasses; i++) {
+            classRanges[i] = HandRange.ofClass(i);
+        }
+        int[] noBoard = new int[0];
+        List<Callable<double[]>> tasks = new ArrayList<>();
+        for (int i = 0; i < numberOfThreads; i++) {
+            int workerIndex = i;
+            tasks.add(() -> { // matchups of the upper triangle are split between workers by their index
+                double[] matrix = new double[numberOfClasses * numberOfClasses];
+                int matchup = 0;
+                for (int row = 0; row < numberOfClasses; row++) {
+                    for (int column = row; column < numberOfClasses; column++, matchup++) {
+                        if (matchup % numberOfThreads == workerIndex) {
+                            Worker worker = new Worker(noBoard, classRanges[row], classRanges[column]);
+                            if (getNumberOfDeals(0, worker.ranges) <= maxSamples) {
+                                worker.enumerate(0, 1);
+                            } else {
+                                worker.sample(getBlockRandom(seed, matchup), maxSamples);
+                            }
+                            Result result = new Result(worker.tally, false);
+                            matrix[row * numberOfClasses + column] = result.getEquityPercentage(0);
+                            matrix[column * numberOfClasses + row] = result.getEquityPercentage(1);
+                        }
+                    }
+                }
+                return matrix;
+            });
+        }
+        double[] matrix = new double[numberOfClasses * numberOfClasses];
+        for (double[] workerMatrix : invokeAll(tasks)) {
+            for (int i = 0; i < matrix.length; i++) {
+                matrix[i] += workerMatrix[i];
+            }
+        }
+        if (key != null) {
+            cache.put(key, matrix);
+        }
+        return matrix;
+    }
+
+    private String getKey(int[] boardCards, HandRange[] ranges) {
+        long boardMask = 0;
+        for (int card : boardCards) {
+            boardMask |= 1L << card;
+        }
+        StringBuilder key = new StringBuilder("ranges;board=").append(Long.toHexString(boardMask));
+        for (HandRange range : ranges) {
+            key.append(";range=").append(range.getCanonicalKey());
+        }
+        return key.append(";samples=").append(maxSamples).append(";seed=").append(seed).toString();
+    }
+
+    private static SplittableRandom getBlockRandom(long seed, long block) {
+        return new SplittableRandom(seed + block * BLOCK_SEED_INCREMENT);
+    }
+
+    // deals of a combination per range and a runout, including those with shared cards, at most Long.MAX_VALUE
+    private static long getNumberOfDeals(int numberOfBoardCards, HandRange[] ranges) {
+        int unseenCards = Card.NUMBER_OF_CARDS - numberOfBoardCards - 2 * ranges.length;
+        double deals = 1;
+        for (int i = 0; i < BOARD_SIZE - numberOfBoardCards; i++) {
+            deals = deals * (unseenCards - i) / (i + 1);
+        }
+        for (HandRange range : ranges) {
+            deals *= range.getNumberOfCombos();
+        }
+        return deals >= Long.MAX_VALUE ? Long.MAX_VALUE : Math.round(deals);
+    }
+
+    private <T> List<T> invokeAll(List<Callable<T>> tasks) {
+        try {
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : executor.invokeAll(tasks)) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private static final class Tally {
+        private final long[] wins;
+        private final long[] ties;
+        private final long[] potShares; // in units of 1 / POT_SHARES of a pot
+        private long deals;
+
+        private Tally(int numberOfRanges) {
+            wins = new long[numberOfRanges];
+            ties = new long[numberOfRanges];
+            potShares = new long[numberOfRanges];
+        }
+
+        private void add(Tally other) {
+            for (int i = 0; i < wins.length; i++) {
+                wins[i] += other.wins[i];
+                ties[i] += other.ties[i];
+                potShares[i] += other.potShares[i];
+            }
+            deals += other.deals;
+        }
+    }
+
+    private final class Worker {
+        private final HandRange[] ranges;
+        private final long[][] comboMasks; // the two cards of each combination of each range
+        private final long boardMask;
+        private final int knownBoardCards;
+        private final HandStrengthEvaluator evaluator = evaluatorType.newEvaluator();
+        private final int[] cards = new int[2 + BOARD_SIZE]; // hole cards of the evaluated range, then the board
+        private final int[] holeCards;
+        private final int[] strengths;
+        private final int[] unseenCards = new int[Card.NUMBER_OF_CARDS];
+        private final Tally tally;
+
+        private Worker(int[] boardCards, HandRange... ranges) {
+            this.ranges = ranges;
+            comboMasks = new long[ranges.length][];
+            for (int range = 0; range < ranges.length; range++) {
+                int[] combos = ranges[range].getCombos();
+                comboMasks[range] = new long[combos.length / 2];
+                for (int combo = 0; combo < comboMasks[range].length; combo++) {
+                    comboMasks[range][combo] = 1L << combos[2 * combo] | 1L << combos[2 * combo + 1];
+                }
+            }
+            long mask = 0;
+            for (int card : boardCards) {
+                mask |= 1L << card;
+            }
+            boardMask = mask;
+            knownBoardCards = boardCards.length;
+            System.arraycopy(boardCards, 0, cards, 2, boardCards.length);
+            holeCards = new int[2 * ranges.length];
+            strengths = new int[ranges.length];
+            tally = new Tally(ranges.length);
+        }
+
+        // deals are split between workers by the combination of the first range
+        private void enumerate(int workerIndex, int numberOfWorkers) {
+            for (int combo = workerIndex; combo < comboMasks[0].length; combo += numberOfWorkers) {
+                if ((comboMasks[0][combo] & boardMask) == 0) {
+                    setHoleCards(0, combo);
+                    enumerateCombos(1, boardMask | comboMasks[0][combo]);
+                }
+            }
+        }
+
+        private void enumerateCombos(int range, long usedCards) {
+            if (range == ranges.length) {
+                int numberOfUnseenCards = 0;
+                for (int card = 0; card < Card.NUMBER_OF_CARDS; card++) {
+                    if ((usedCards & 1L << card) == 0) {
+                        unseenCards[numberOfUnseenCards++] = card;
+                    }
+                }
+                enumerateRunouts(knownBoardCards, 0, numberOfUnseenCards);
+                return;
+            }
+            for (int combo = 0; combo < comboMasks[range].length; combo++) {
+                if ((comboMasks[range][combo] & usedCards) == 0) {
+                    setHoleCards(range, combo);
+                    enumerateCombos(range + 1, usedCards | comboMasks[range][combo]);
+                }
+            }
+        }
+
+        private void enumerateRunouts(int boardCards, int nextUnseenCard, int numberOfUnseenCards) {
+            if (boardCards == BOARD_SIZE) {
+                evaluateDeal();
+                return;
+            }
+            for (int i = nextUnseenCard; i < numberOfUnseenCards; i++) {
+                cards[2 + boardCards] = unseenCards[i];
+                enumerateRunouts(boardCards + 1, i + 1, numberOfUnseenCards);
+            }
+        }
+
+        // a deal with shared cards is dealt again from the start, so the accepted deals stay equally likely
+        private void sample(SplittableRandom random, long samples) {
+            for (long sample = 0; sample < samples; sample++) {
+                long usedCards = dealCombos(random);
+                for (int i = knownBoardCards; i < BOARD_SIZE; i++) {
+                    int card = random.nextInt(Card.NUMBER_OF_CARDS);
+                    while ((usedCards & 1L << card) != 0) {
+                        card = random.nextInt(Card.NUMBER_OF_CARDS);
+                    }
+                    usedCards |= 1L << card;
+                    cards[2 + i] = card;
+                }
+                evaluateDeal();
+            }
+        }
+
+        // returns the used cards of a deal of one combination per range
+        private long dealCombos(SplittableRandom random) {
+            for (int rejectedDeals = 0; rejectedDeals < MAX_REJECTED_DEALS; rejectedDeals++) {
+                long usedCards = boardMask;
+                int range = 0;
+                while (range < ranges.length) {
+                    int combo = random.nextInt(comboMasks[range].length);
+                    if ((comboMasks[range][combo] & usedCards) != 0) {
+                        break;
+                    }
+                    usedCards |= comboMasks[range][combo];
+                    setHoleCards(range++, combo);
+                }
+                if (range == ranges.length) {
+                    return usedCards;
+                }
+            }
+            throw new RuntimeException(NO_DEALS_MESSAGE);
+        }
+
+        private void setHoleCards(int range, int combo) {
+            int[] combos = ranges[range].getCombos();
+            holeCards[2 * range] = combos[2 * combo];
+            holeCards[2 * range + 1] = combos[2 * combo + 1];
+        }
+
+        // strengths compare like Hand.compareTo, ties split the pot
+        private void evaluateDeal() {
+            int bestStrength = -1;
+            int numberOfBestHands = 0;
+            for (int range = 0; range < strengths.length; range++) {
+                cards[0] = holeCards[2 * range];
+                cards[1] = holeCards[2 * range + 1];
+                int strength = evaluator.evaluate(cards);
+                strengths[range] = strength;
+                if (strength > bestStrength) {
+                    bestStrength = strength;
+                    numberOfBestHands = 1;
+                } else if (strength == bestStrength) {
+                    numberOfBestHands++;
+                }
+            }
+            for (int range = 0; range < strengths.length; range++) {
+                if (strengths[range] == bestStrength) {
+                    if (numberOfBestHands == 1) {
+                        tally.wins[range]++;
+                    } else {
+                        tally.ties[range]++;
+                    }
+                    tally.potShares[range] += POT_SHARES / numberOfBestHands;
+                }
+            }
+            tally.deals++;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package holdem;
+
+import java.util.Arrays;
+import java.util.List;
+
+// The evaluated hands of a deal in output order, sorted by primitive keys of strength, then hand string (from the
+// alphabetical order of the cards) and then position in the line, so comparisons build no strings and look at no
+// cards. Ties are marked in the same pass that puts the hands in order, from the strength bits of the keys (only the
+// rare deals too large for keys take a second pass). An App reuses one instance for all deals, so sorting allocates
+// nothing once the arrays are large enough.
+public final class SortedDeal {
+    private static final int ALPHABETICAL_KEY_SHIFT = 15;
+    private static final int STRENGTH_SHIFT = 39; // strengths are below 2^24, so keys stay positive
+    private static final int MAX_HANDS_BY_KEY = 1 << ALPHABETICAL_KEY_SHIFT;
+
+    private long[] sortKeys = new long[16];
+    private Hand[] hands = new Hand[16];
+    private boolean[] tiedWithPrevious = new boolean[16];
+    private int[] strongest = new int[16]; // min-heap of sortStrongest()
+    private int size;
+
+    public void sort(List<Hand> deal) {
+        size = deal.size();
+        ensureCapacity(size);
+        if (size > MAX_HANDS_BY_KEY) { // too many hands to keep their position in the key, sort them as objects
+            deal.toArray(hands);
+            Arrays.sort(hands, 0, size);
+            markTies();
+        } else {
+            for (int i = 0; i < size; i++) {
+                sortKeys[i] = getSortKey(deal.get(i), i);
+            }
+            sortHandsByKey(deal);
+        }
+    }
+
+    // keeps only the strongest hands in the order of sort(): the given number of them and any others as strong as
+    // the weakest of those, so that tie groups stay whole. The hands are only sorted once the weaker ones have been
+    // dropped by comparing their strength, with the hand ranking in its high bits, to that of the cutoff.
+    public void sortStrongest(List<Hand> deal, int numberOfHands) {
+        int cutoffStrength = getCutoffStrength(deal, numberOfHands);
+        if (deal.size() > MAX_HANDS_BY_KEY) {
+            sort(deal);
+            int weakerHands = 0;
+            while (weakerHands < size && hands[weakerHands].getStrength() < cutoffStrength) {
+                weakerHands++;
+            }
+            size -= weakerHands;
+            System.arraycopy(hands, weakerHands, hands, 0, size);
+            markTies();
+            return;
+        }
+        ensureCapacity(deal.size());
+        size = 0;
+        for (int i = 0; i < deal.size(); i++) {
+            Hand hand = deal.get(i);
+            if (hand.getStrength() >= cutoffStrength) {
+                sortKeys[size++] = getSortKey(hand, i);
+            }
+        }
+        sortHandsByKey(deal);
+    }
+
+    // the strength of the numberOfHands-th strongest hand, found with a min-heap of the strongest strengths so far,
+    // so that most hands of a large deal are passed over after a single comparison with its root
+    private int getCutoffStrength(List<Hand> deal, int numberOfHands) {
+        if (numberOfHands >= deal.size()) {
+            return Integer.MIN_VALUE;
+        }
+        if (numberOfHands > strongest.length) {
+            strongest = new int[Math.max(numberOfHands, 2 * strongest.length)];
+        }
+        for (int i = 0; i < numberOfHands; i++) {
+            strongest[i] = deal.get(i).getStrength();
+        }
+        for (int i = numberOfHands / 2 - 1; i >= 0; i--) {
+            siftDown(i, numberOfHands);
+        }
+        for (int i = numberOfHands; i < deal.size(); i++) {
+            int strength = deal.get(i).getStrength();
+            if (strength > strongest[0]) {
+                strongest[0] = strength;
+                siftDown(0, numberOfHands);
+            }
+        }
+        return strongest[0];
+    }
+
+    private void siftDown(int position, int heapSize) {
+        int parent = position;
+        int strength = strongest[parent];
+        int child = 2 * parent + 1;
+        while (child < heapSize) {
+            if (child + 1 < heapSize && strongest[child + 1] < strongest[child]) {
+                child++;
+            }
+            if (strongest[child] >= strength) {
+                break;
+            }
+            strongest[parent] = strongest[child];
+            parent = child;
+            child = 2 * parent + 1;
+        }
+        strongest[parent] = strength;
+    }
+
+    private void ensureCapacity(int numberOfHands) {
+        if (numberOfHands > hands.length) {
+            int capacity = Math.max(numberOfHands, 2 * hands.length);
+            sortKeys = new long[capacity];
+            hands = new Hand[capacity];
+            tiedWithPrevious = new boolean[capacity];
+        }
+    }
+
+    private static long getSortKey(Hand hand, int position) {
+        return (long) hand.getStrength() << STRENGTH_SHIFT | (long) hand.getAlphabeticalKey() << ALPHABETICAL_KEY_SHIFT
+                | position;
+    }
+
+    // the first size keys, each ending with the position of its hand in the deal and starting with its strength
+    private void sortHandsByKey(List<Hand> deal) {
+        Arrays.sort(sortKeys, 0, size);
+        for (int i = 0; i < size; i++) {
+            hands[i] = deal.get((int) sortKeys[i] & MAX_HANDS_BY_KEY - 1);
+            tiedWithPrevious[i] = i > 0 && sortKeys[i] >>> STRENGTH_SHIFT == sortKeys[i - 1] >>> STRENGTH_SHIFT;
+        }
+    }
+
+    // for hands sorted as objects
+    private void markTies() {
+        for (int i = 0; i < size; i++) {
+            tiedWithPrevious[i] = i > 0 && hands[i].getStrength() == hands[i - 1].getStrength();
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public Hand getHand(int position) {
+        return hands[position];
+    }
+
+    // whether the hand is as strong as the one before it, so that they are in the same tie group
+    public boolean isTiedWithPrevious(int position) {
+        return tiedWithPrevious[position];
+    }
+}
@@ -0,0 +1,13 @@
+package holdem;
+
+public interface StageLatencyMXBean {
+    long getCount();
+
+    long getP50Nanos();
+
+    long getP99Nanos();
+
+    long getP999Nanos();
+
+    long getMaxNanos();
+}
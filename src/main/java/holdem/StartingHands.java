@@ -0,0 +1,57 @@
+package holdem;
+
+// The 169 classes of Hold'em starting hands, numbered as the cells of the usual 13 x 13 grid with aces first: the
+// class index is row * 13 + column, pairs are on the diagonal, suited hands above it (the row is the higher rank)
+// and offsuit hands below it (the row is the lower rank).
+public final class StartingHands {
+    public static final int NUMBER_OF_CLASSES = 169;
+    private static final int NUMBER_OF_RANKS = 13;
+    private static final Rank[] RANKS = Rank.values();
+
+    private StartingHands() {
+    }
+
+    public static int getClassIndex(int card1, int card2) {
+        int row = NUMBER_OF_RANKS - 1 - (card1 >>> 2);
+        int column = NUMBER_OF_RANKS - 1 - (card2 >>> 2);
+        boolean suited = (card1 & 3) == (card2 & 3);
+        if (suited == row > column) { // suited hands have the higher rank (lower row) first
+            int swap = row;
+            row = column;
+            column = swap;
+        }
+        return row * NUMBER_OF_RANKS + column;
+    }
+
+    // e.g. AA, AKs or AKo
+    public static String getClassName(int classIndex) {
+        int row = classIndex / NUMBER_OF_RANKS;
+        int column = classIndex % NUMBER_OF_RANKS;
+        Rank rank1 = RANKS[NUMBER_OF_RANKS - 1 - Math.min(row, column)];
+        Rank rank2 = RANKS[NUMBER_OF_RANKS - 1 - Math.max(row, column)];
+        return rank1.toString() + rank2 + (row == column ? "" : row < column ? "s" : "o");
+    }
+
+    // the hole cards of each combination of the class as pairs of card indices, lower index first
+    public static int[] getCombos(int classIndex) {
+        int row = classIndex / NUMBER_OF_RANKS;
+        int column = classIndex % NUMBER_OF_RANKS;
+        int highRank = NUMBER_OF_RANKS - 1 - Math.min(row, column);
+        int lowRank = NUMBER_OF_RANKS - 1 - Math.max(row, column);
+        int numberOfCombos = row == column ? 6 : row < column ? 4 : 12;
+        int[] combos = new int[2 * numberOfCombos];
+        int combo = 0;
+        for (int suit1 = 0; suit1 < 4; suit1++) {
+            for (int suit2 = 0; suit2 < 4; suit2++) {
+                boolean included = row == column ? suit1 < suit2 : row < column ? suit1 == suit2 : suit1 != suit2;
+                if (included) {
+                    int card1 = highRank << 2 | suit1;
+                    int card2 = lowRank << 2 | suit2;
+                    combos[combo++] = Math.min(card1, card2);
+                    combos[combo++] = Math.max(card1, card2);
+                }
+            }
+        }
+        return combos;
+    }
+}
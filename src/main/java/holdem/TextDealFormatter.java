@@ -0,0 +1,27 @@
+package holdem;
+
+// The original format: hands in ascending strength, separated by spaces, or by '=' when equally strong.
+public final class TextDealFormatter implements DealFormatter {
+    private static final byte EQUAL_VALUE_HAND_SEPARATOR = '=';
+    private static final byte DIFFERENT_VALUE_HAND_SEPARATOR = ' ';
+
+    @Override
+    public void formatDeal(OutputBuffer output, long dealIndex, SortedDeal sortedDeal) {
+        for (int i = 0; i < sortedDeal.size(); i++) {
+            if (i > 0) {
+                output.put(sortedDeal.isTiedWithPrevious(i) ? EQUAL_VALUE_HAND_SEPARATOR
+                        : DIFFERENT_VALUE_HAND_SEPARATOR);
+            }
+            for (Card card : sortedDeal.getHand(i).getHandCards()) {
+                output.putAscii(card.toString());
+            }
+        }
+        output.putLineSeparator();
+    }
+
+    @Override
+    public void formatError(OutputBuffer output, long dealIndex, String message, String line) {
+        output.putString(message + ", skipping line: " + line);
+        output.putLineSeparator();
+    }
+}
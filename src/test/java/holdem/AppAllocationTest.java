@@ -0,0 +1,162 @@
+package holdem;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+
+// Checks that processing a Hold'em deal line the way --input, --nio and --threads do (parse, evaluate, sort and
+// format) allocates nothing once the JIT has compiled it. Seeded random deals are generated for each hand ranking,
+// with the first hand of that ranking, and processed by an App of each evaluator and output format, with the output
+// discarded as if written. After a warmup over all deals, the bytes allocated by the thread (as counted by
+// com.sun.management.ThreadMXBean) are measured over rounds of the deals of each ranking, less what reading them
+// allocates. The legacy evaluator allocates by design (around 10 KB per deal), so it isn't checked. Surefire runs
+// this test in a JVM of its own, so other tests don't disturb the JIT or the heap.
+class AppAllocationTest {
+    private static final long SEED = 0;
+    private static final int DEALS_PER_RANKING = 256;
+    private static final int MAX_HANDS = 9;
+    private static final int WARMUP_ROUNDS = 200;
+    private static final int MEASURED_ROUNDS = 20;
+    private static final int MEASUREMENT_ATTEMPTS = 3; // a stray deoptimization shouldn't fail the test
+    private static final HandRanking[] HAND_RANKINGS = HandRanking.values();
+
+    private static final ByteBuffer[] DEALS = new ByteBuffer[HAND_RANKINGS.length]; // one line per deal, by ranking
+    private static final int[][] LINE_STARTS = new int[HAND_RANKINGS.length][];
+    private static long measurementBytes; // allocated by reading the allocated bytes twice
+
+    @BeforeAll
+    static void generateDeals() {
+        Random random = new Random(SEED);
+        for (HandRanking ranking : HAND_RANKINGS) {
+            generateDeals(random, ranking);
+        }
+        measurementBytes = Long.MAX_VALUE;
+        for (int attempt = 0; attempt < MEASUREMENT_ATTEMPTS; attempt++) {
+            long start = getAllocatedBytes();
+            measurementBytes = Math.min(measurementBytes, getAllocatedBytes() - start);
+        }
+    }
+
+    private static void generateDeals(Random random, HandRanking ranking) {
+        HandStrengthEvaluator evaluator = EvaluatorType.BITMASK.newEvaluator();
+        StringBuilder lines = new StringBuilder();
+        int[] starts = new int[DEALS_PER_RANKING + 1];
+        int[] cards = new int[Card.NUMBER_OF_CARDS];
+        for (int i = 0; i < cards.length; i++) {
+            cards[i] = i;
+        }
+        int numberOfDeals = 0;
+        while (numberOfDeals < DEALS_PER_RANKING) {
+            int numberOfHands = 2 + random.nextInt(MAX_HANDS - 1);
+            int numberOfCards = DealParser.NUMBER_OF_BOARD_CARDS + 2 * numberOfHands;
+            for (int i = 0; i < numberOfCards; i++) { // the first cards of a shuffled deck
+                int other = i + random.nextInt(cards.length - i);
+                int card = cards[other];
+                cards[other] = cards[i];
+                cards[i] = card;
+            }
+            BoardContext board = new BoardContext(Arrays.copyOf(cards, DealParser.NUMBER_OF_BOARD_CARDS));
+            int firstHandStrength = evaluator.evaluate(board, cards[DealParser.NUMBER_OF_BOARD_CARDS],
+                    cards[DealParser.NUMBER_OF_BOARD_CARDS + 1]);
+            if (HandStrength.getHandRanking(firstHandStrength) != ranking) {
+                continue;
+            }
+            starts[numberOfDeals] = lines.length();
+            for (int i = 0; i < numberOfCards; i++) {
+                if (i >= DealParser.NUMBER_OF_BOARD_CARDS && (i - DealParser.NUMBER_OF_BOARD_CARDS) % 2 == 0) {
+                    lines.append(' ');
+                }
+                lines.append(Card.valueOf(cards[i]));
+            }
+            numberOfDeals++;
+        }
+        starts[numberOfDeals] = lines.length();
+        DEALS[ranking.ordinal()] = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.US_ASCII));
+        LINE_STARTS[ranking.ordinal()] = starts;
+    }
+
+    // one test per allocation free evaluator and output format
+    @TestFactory
+    List<DynamicTest> processingDealsAllocatesNothing() {
+        List<DynamicTest> tests = new ArrayList<>();
+        for (EvaluatorType evaluatorType : EvaluatorType.values()) {
+            if (evaluatorType != EvaluatorType.LEGACY) {
+                for (OutputFormat outputFormat : OutputFormat.values()) {
+                    tests.add(DynamicTest.dynamicTest(evaluatorType + " " + outputFormat,
+                            () -> checkAllocations(evaluatorType, outputFormat)));
+                }
+            }
+        }
+        return tests;
+    }
+
+    private static void checkAllocations(EvaluatorType evaluatorType, OutputFormat outputFormat) {
+        assumeTrue(getAllocatedBytes() >= 0, "Allocated bytes can't be measured on this JVM");
+        App app = new App(evaluatorType.newEvaluator(), GameType.HOLDEM, outputFormat);
+        app.setOutputChannel(new DiscardingChannel());
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            for (HandRanking ranking : HAND_RANKINGS) {
+                processDeals(app, ranking);
+            }
+        }
+        StringBuilder allocatingRankings = new StringBuilder();
+        for (HandRanking ranking : HAND_RANKINGS) {
+            long bytes = Long.MAX_VALUE;
+            for (int attempt = 0; attempt < MEASUREMENT_ATTEMPTS && bytes > 0; attempt++) {
+                long start = getAllocatedBytes();
+                for (int round = 0; round < MEASURED_ROUNDS; round++) {
+                    processDeals(app, ranking);
+                }
+                bytes = Math.min(bytes, getAllocatedBytes() - start - measurementBytes);
+            }
+            if (bytes > 0) {
+                allocatingRankings.append(String.format(Locale.ROOT, " %s %.2f bytes/deal", ranking,
+                        (double) bytes / (MEASURED_ROUNDS * DEALS_PER_RANKING)));
+            }
+        }
+        assertTrue(allocatingRankings.length() == 0, () -> "Processing deals allocates:" + allocatingRankings);
+    }
+
+    private static void processDeals(App app, HandRanking ranking) {
+        ByteBuffer rankingDeals = DEALS[ranking.ordinal()];
+        int[] starts = LINE_STARTS[ranking.ordinal()];
+        for (int i = 0; i < DEALS_PER_RANKING; i++) {
+            app.processDeal(rankingDeals, starts[i], starts[i + 1]);
+        }
+    }
+
+    private static long getAllocatedBytes() {
+        return DealMetrics.getAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    // takes the output like a channel that has written it all
+    private static final class DiscardingChannel implements WritableByteChannel {
+        @Override
+        public int write(ByteBuffer source) {
+            int bytes = source.remaining();
+            ((Buffer) source).position(source.limit());
+            return bytes;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package holdem;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+// Settles deal lines as --settle does and checks the payouts of each player in line order. On the board
+// 4cKs4h8s7s, KhKd makes a full house and Ad4s and Ac4d tie with three fours, ace and king.
+class PotSettlementTest {
+    private static final String BOARD = "4cKs4h8s7s ";
+
+    @Test
+    void allPotsGoToTheStrongestHandWithFoldedChipsAboveTheLastLevel() {
+        assertEquals("1100 0 0 0", settle("KhKd:300 Ad4s:100 Ac4d:200 -:500"));
+    }
+
+    @Test
+    void sidePotTheStrongestHandCantWinGoesToTheNextStrongest() {
+        assertEquals("300 200 200", settle("KhKd:100 Ad4s:300 Ac4d:300"));
+    }
+
+    @Test
+    void oddChipOfASplitPotGoesToTheFirstWinnerInLineOrder() {
+        assertEquals("101 100 0", settle("Ad4s:100 Ac4d:100 -:1"));
+        assertEquals("0 101 100", settle("-:1 Ad4s:100 Ac4d:100"));
+    }
+
+    @Test
+    void zeroChipPotsPayNothing() {
+        assertEquals("0 100 100", settle("KhKd:0 Ad4s:100 Ac4d:100"));
+        assertEquals("0 0", settle("KhKd:0 Ad4s:0"));
+    }
+
+    private static String settle(String players) {
+        byte[] line = (BOARD + players).getBytes(StandardCharsets.US_ASCII);
+        DealParser parser = new DealParser(GameType.HOLDEM, true);
+        assertEquals(DealParser.OK, parser.parse(ByteBuffer.wrap(line), 0, line.length));
+        int[] boardCardIndices = parser.getBoardCards();
+        Card[] boardCards = new Card[boardCardIndices.length];
+        for (int i = 0; i < boardCards.length; i++) {
+            boardCards[i] = Card.valueOf(boardCardIndices[i]);
+        }
+        BoardContext board = new BoardContext(boardCardIndices.clone());
+        HandStrengthEvaluator evaluator = EvaluatorType.LOOKUP_TABLE.newEvaluator();
+        int[] handCards = parser.getHandCards();
+        List<Hand> deal = new ArrayList<>();
+        for (int i = 0; i < parser.getNumberOfHands(); i++) {
+            Hand hand = new Hand(i, Card.valueOf(handCards[2 * i]), Card.valueOf(handCards[2 * i + 1]), boardCards,
+                    board, evaluator);
+            hand.evaluateHand();
+            deal.add(hand);
+        }
+        SortedDeal sortedDeal = new SortedDeal();
+        sortedDeal.sort(deal);
+        PotSettlement settlement = new PotSettlement();
+        settlement.settle(parser.getPlayerContributions(), parser.getPlayerHands(), parser.getNumberOfPlayers(),
+                sortedDeal);
+        StringBuilder payouts = new StringBuilder();
+        for (int player = 0; player < settlement.getNumberOfPlayers(); player++) {
+            payouts.append(player > 0 ? " " : "").append(settlement.getPayouts()[player]);
+        }
+        return payouts.toString();
+    }
+}